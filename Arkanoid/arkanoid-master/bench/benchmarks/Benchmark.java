@@ -0,0 +1,17 @@
+package benchmarks;
+
+/**
+ * Benchmark interface.
+ * <p>
+ * One measured operation. The runner calls it again and again and sums
+ * the returned values, so the work can't be optimized away.
+ */
+public interface Benchmark {
+
+    /**
+     * Runs one operation.
+     *
+     * @return any value computed by the operation.
+     */
+    long operation();
+}
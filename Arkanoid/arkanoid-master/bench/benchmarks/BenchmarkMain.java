@@ -0,0 +1,80 @@
+package benchmarks;
+
+/**
+ * BenchmarkMain class.
+ * <p>
+ * Runs all the benchmarks. Options (all optional):
+ * -f regex (run only benchmarks whose name contains it),
+ * -balls 1,10,100 and -blocks 0,60,240 (the parameters),
+ * -wi n and -i n (warmup and measured iterations),
+ * -t ms (the time of one iteration).
+ */
+public class BenchmarkMain {
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args the options.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        String filter = "";
+        int[] balls = {1, 10, 100};
+        int[] blocks = {0, 60, 240, 960};
+        int warmup = 5;
+        int iterations = 5;
+        long millis = 500;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            try {
+                switch (args[i]) {
+                    case "-f":
+                        filter = value;
+                        break;
+                    case "-balls":
+                        balls = parseList(value);
+                        break;
+                    case "-blocks":
+                        blocks = parseList(value);
+                        break;
+                    case "-wi":
+                        warmup = Integer.parseInt(value);
+                        break;
+                    case "-i":
+                        iterations = Integer.parseInt(value);
+                        break;
+                    case "-t":
+                        millis = Long.parseLong(value);
+                        break;
+                    default:
+                        throw new RuntimeException("failed parsing option " + args[i]);
+                }
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("failed parsing option " + args[i] + " " + value);
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations, millis, filter);
+        CollisionBenchmarks.run(runner, blocks);
+        FrameBenchmarks.run(runner, balls, blocks);
+        // keeps the results of the operations alive
+        if (runner.getSink() == Long.MIN_VALUE) {
+            System.out.println("sink " + runner.getSink());
+        }
+    }
+
+    /**
+     * Parses a comma separated list of numbers.
+     *
+     * @param value the list.
+     * @return the numbers.
+     */
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] numbers = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            numbers[i] = Integer.parseInt(parts[i].trim());
+        }
+        return numbers;
+    }
+}
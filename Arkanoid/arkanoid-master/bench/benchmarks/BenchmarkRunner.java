@@ -0,0 +1,143 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * BenchmarkRunner class.
+ * <p>
+ * A small harness in the spirit of JMH: every benchmark runs some timed
+ * warmup iterations and then some measured iterations, and the report
+ * gives the throughput (operations per second, with the spread between
+ * iterations) and the allocation rate (bytes per operation, measured by
+ * the thread allocation counter of the JVM).
+ */
+public class BenchmarkRunner {
+    private static final int CHECK_CLOCK_EVERY = 64;
+    private int warmupIterations;
+    private int measuredIterations;
+    private long iterationNanos;
+    private Pattern filter;
+    private com.sun.management.ThreadMXBean threads;
+    private long sink;
+    private List<String> report;
+
+    /**
+     * Constructs a BenchmarkRunner.
+     *
+     * @param warmupIterations   the number of warmup iterations.
+     * @param measuredIterations the number of measured iterations.
+     * @param iterationMillis    the time of one iteration in milliseconds.
+     * @param filter             a regex, only benchmarks whose name contains it run.
+     */
+    public BenchmarkRunner(int warmupIterations, int measuredIterations, long iterationMillis, String filter) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        this.iterationNanos = iterationMillis * 1000000L;
+        this.filter = Pattern.compile(filter);
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.report = new ArrayList<>();
+    }
+
+    /**
+     * Tells if the benchmark of the given name passes the filter.
+     * Benchmarks with an expensive set up should check it first.
+     *
+     * @param name the name of the benchmark.
+     * @return true if it should run, else false.
+     */
+    public boolean accepts(String name) {
+        return this.filter.matcher(name).find();
+    }
+
+    /**
+     * Runs and reports the benchmark, if it passes the filter.
+     *
+     * @param name      the name of the benchmark with its parameters.
+     * @param benchmark the benchmark.
+     */
+    public void run(String name, Benchmark benchmark) {
+        if (!this.accepts(name)) {
+            return;
+        }
+        for (int i = 0; i < this.warmupIterations; i++) {
+            this.iteration(benchmark);
+        }
+        double[] rates = new double[this.measuredIterations];
+        long ops = 0;
+        long bytes = 0;
+        for (int i = 0; i < this.measuredIterations; i++) {
+            long allocatedBefore = this.allocatedBytes();
+            long[] result = this.iteration(benchmark);
+            bytes += this.allocatedBytes() - allocatedBefore;
+            ops += result[0];
+            rates[i] = result[0] * 1e9 / result[1];
+        }
+
+        // mean and spread of the throughput
+        double mean = 0;
+        for (double rate : rates) {
+            mean += rate;
+        }
+        mean /= rates.length;
+        double variance = 0;
+        for (double rate : rates) {
+            variance += (rate - mean) * (rate - mean);
+        }
+        double error = rates.length > 1 ? Math.sqrt(variance / (rates.length - 1)) : 0;
+
+        String line = String.format("%-60s %14.1f +- %10.1f ops/s %12.1f B/op",
+                name, mean, error, ops == 0 ? 0.0 : bytes / (double) ops);
+        System.out.println(line);
+        this.report.add(line);
+    }
+
+    /**
+     * Gives the lines reported so far.
+     *
+     * @return the report lines.
+     */
+    public List<String> getReport() {
+        return this.report;
+    }
+
+    /**
+     * Gives the sum of all the values returned by the operations.
+     *
+     * @return the sum of the values.
+     */
+    public long getSink() {
+        return this.sink;
+    }
+
+    /**
+     * Runs operations for one iteration time.
+     *
+     * @param benchmark the benchmark.
+     * @return {the number of operations, the time in nanoseconds}.
+     */
+    private long[] iteration(Benchmark benchmark) {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < CHECK_CLOCK_EVERY; i++) {
+                this.sink += benchmark.operation();
+            }
+            ops += CHECK_CLOCK_EVERY;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < this.iterationNanos);
+        return new long[]{ops, elapsed};
+    }
+
+    /**
+     * Gives the bytes allocated so far by the current thread.
+     *
+     * @return the allocated bytes.
+     */
+    private long allocatedBytes() {
+        return this.threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,192 @@
+package benchmarks;
+
+import biuoop.KeyboardSensor;
+import general.GameEnvironment;
+import general.LazyImage;
+import general.Utils;
+import geometry.Velocity;
+import levels.LevelInformation;
+import sprites.ColorBackground;
+import sprites.Sprite;
+import sprites.blocks.BaseBlock;
+import sprites.blocks.Border;
+
+import java.awt.Color;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BenchmarkWorld class.
+ * <p>
+ * Builds synthetic levels and environments of given ball and block counts
+ * for the benchmarks. All the randomness is seeded, so every run measures
+ * the same work.
+ */
+public class BenchmarkWorld implements LevelInformation {
+    private static final int BLOCKS_TOP = 100;
+    private static final int BLOCKS_BOTTOM = 400;
+    private int balls;
+    private int blockCount;
+    private long seed;
+
+    /**
+     * Constructs a world of the given counts.
+     *
+     * @param balls  the number of balls.
+     * @param blocks the number of blocks.
+     * @param seed   the seed of the random velocities.
+     */
+    public BenchmarkWorld(int balls, int blocks, long seed) {
+        this.balls = balls;
+        this.blockCount = blocks;
+        this.seed = seed;
+    }
+
+    /**
+     * Gives an environment with borders on all four sides and the blocks.
+     *
+     * @return the environment.
+     */
+    public GameEnvironment environment() {
+        GameEnvironment environment = new GameEnvironment(Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT,
+                Utils.BORDER_SIZE);
+        for (BaseBlock border : borders()) {
+            environment.addCollidable(border);
+        }
+        for (BaseBlock block : this.blocks()) {
+            environment.addCollidable(block);
+        }
+        return environment;
+    }
+
+    /**
+     * Gives the four borders of the window.
+     *
+     * @return the borders.
+     */
+    public static List<BaseBlock> borders() {
+        List<BaseBlock> borders = new ArrayList<>();
+        int size = Utils.BORDER_SIZE;
+        borders.add(new Border(0, 0, Utils.WINDOW_WIDTH, size, Color.GRAY));
+        borders.add(new Border(0, Utils.WINDOW_HEIGHT - size, Utils.WINDOW_WIDTH, size, Color.GRAY));
+        borders.add(new Border(0, size, size, Utils.WINDOW_HEIGHT - 2 * size, Color.GRAY));
+        borders.add(new Border(Utils.WINDOW_WIDTH - size, size, size, Utils.WINDOW_HEIGHT - 2 * size, Color.GRAY));
+        return borders;
+    }
+
+    /**
+     * Gives the velocities of the balls, random in the upward angles.
+     *
+     * @return the velocities.
+     */
+    public List<Velocity> velocities() {
+        Random random = new Random(this.seed);
+        List<Velocity> velocities = new ArrayList<>();
+        for (int i = 0; i < this.balls; i++) {
+            velocities.add(Velocity.fromAngleAndSpeed(300 + random.nextInt(120), 300 + random.nextInt(300)));
+        }
+        return velocities;
+    }
+
+    @Override
+    public String levelName() {
+        return "Benchmark " + this.balls + "x" + this.blockCount;
+    }
+
+    @Override
+    public int paddleWidth() {
+        return 100;
+    }
+
+    @Override
+    public int paddleSpeed() {
+        return 600;
+    }
+
+    @Override
+    public Sprite getBackground() {
+        return new ColorBackground(Color.BLACK);
+    }
+
+    /**
+     * Gives new blocks in rows that fill the area between the borders.
+     * Blocks of a world are made fresh on every call.
+     *
+     * @return the blocks.
+     */
+    @Override
+    public List<BaseBlock> blocks() {
+        List<BaseBlock> blocks = new ArrayList<>();
+        if (this.blockCount == 0) {
+            return blocks;
+        }
+        int inner = Utils.WINDOW_WIDTH - 2 * Utils.BORDER_SIZE;
+        int rows = Math.max(1, (int) Math.round(Math.sqrt(this.blockCount * (BLOCKS_BOTTOM - BLOCKS_TOP)
+                / (double) inner)));
+        int columns = (this.blockCount + rows - 1) / rows;
+        int width = Math.max(1, inner / columns);
+        int height = Math.max(1, (BLOCKS_BOTTOM - BLOCKS_TOP) / rows);
+        for (int i = 0; i < this.blockCount; i++) {
+            int xPos = Utils.BORDER_SIZE + (i % columns) * width;
+            int yPos = BLOCKS_TOP + (i / columns) * height;
+            blocks.add(new Border(xPos, yPos, width, height, Color.BLUE));
+        }
+        return blocks;
+    }
+
+    /**
+     * The blocks of a world are plain colored.
+     *
+     * @return an empty list.
+     */
+    @Override
+    public List<LazyImage> blockImages() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public int numberOfBlocksToRemove() {
+        return this.blockCount;
+    }
+
+    @Override
+    public int numberOfBalls() {
+        return this.balls;
+    }
+
+    @Override
+    public List<Velocity> initialBallVelocities() {
+        return this.velocities();
+    }
+
+    @Override
+    public InputStreamReader blockDefinitionsFile() {
+        return null;
+    }
+
+    @Override
+    public int xPosBlocks() {
+        return Utils.BORDER_SIZE;
+    }
+
+    @Override
+    public int yPosBlocks() {
+        return BLOCKS_TOP;
+    }
+
+    @Override
+    public int rowHeight() {
+        return Utils.GRID_CELL_HEIGHT;
+    }
+
+    /**
+     * Gives a keyboard on which no key is ever pressed.
+     *
+     * @return the keyboard.
+     */
+    public static KeyboardSensor idleKeyboard() {
+        return key -> false;
+    }
+}
@@ -0,0 +1,128 @@
+package benchmarks;
+
+import collisions.CollisionInfo;
+import general.GameEnvironment;
+import general.Utils;
+import geometry.Line;
+import geometry.Point;
+import geometry.Rectangle;
+
+import java.util.Random;
+
+/**
+ * CollisionBenchmarks class.
+ * <p>
+ * Benchmarks of the collision hot paths: the closest collision query of
+ * the environment, and the line and rectangle intersections under it.
+ * Every operation takes the next one of a fixed set of random inputs.
+ */
+public class CollisionBenchmarks {
+    private static final int INPUTS = 1024;
+    private static final long SEED = 42;
+    private static final double STEP_LENGTH = 30;
+
+    /**
+     * Runs the collision benchmarks.
+     *
+     * @param runner      the benchmark runner.
+     * @param blockCounts the block counts to run with.
+     */
+    public static void run(BenchmarkRunner runner, int[] blockCounts) {
+        lineIntersection(runner);
+        rectangleIntersection(runner);
+        for (int blocks : blockCounts) {
+            closestCollision(runner, blocks);
+        }
+    }
+
+    /**
+     * Benchmarks Line.intersectionWith on random short and long segments.
+     *
+     * @param runner the benchmark runner.
+     */
+    private static void lineIntersection(BenchmarkRunner runner) {
+        Random random = new Random(SEED);
+        Line[] first = new Line[INPUTS];
+        Line[] second = new Line[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            first[i] = randomLine(random, STEP_LENGTH);
+            second[i] = randomLine(random, Utils.WINDOW_WIDTH);
+        }
+        int[] next = new int[1];
+        runner.run("Line.intersectionWith", () -> {
+            int i = next[0]++ & (INPUTS - 1);
+            Point point = first[i].intersectionWith(second[i]);
+            return point == null ? 0 : 1;
+        });
+    }
+
+    /**
+     * Benchmarks Rectangle.intersectionPoints of blocks against ball steps.
+     *
+     * @param runner the benchmark runner.
+     */
+    private static void rectangleIntersection(BenchmarkRunner runner) {
+        Random random = new Random(SEED);
+        Rectangle[] rectangles = new Rectangle[INPUTS];
+        Line[] lines = new Line[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            rectangles[i] = new Rectangle(random.nextInt(Utils.WINDOW_WIDTH - 50),
+                    random.nextInt(Utils.WINDOW_HEIGHT - 25), 50, 25);
+            // a step that starts near the rectangle
+            double xPos = rectangles[i].getUpperLeft().getX() + random.nextInt(90) - 20;
+            double yPos = rectangles[i].getUpperLeft().getY() + random.nextInt(65) - 20;
+            double angle = random.nextDouble() * 2 * Math.PI;
+            lines[i] = new Line(xPos, yPos, xPos + STEP_LENGTH * Math.cos(angle),
+                    yPos + STEP_LENGTH * Math.sin(angle));
+        }
+        int[] next = new int[1];
+        runner.run("Rectangle.intersectionPoints", () -> {
+            int i = next[0]++ & (INPUTS - 1);
+            return rectangles[i].intersectionPoints(lines[i]).size();
+        });
+    }
+
+    /**
+     * Benchmarks GameEnvironment.getClosestCollision for ball steps in a
+     * window with the given number of blocks.
+     *
+     * @param runner the benchmark runner.
+     * @param blocks the number of blocks.
+     */
+    private static void closestCollision(BenchmarkRunner runner, int blocks) {
+        String name = "GameEnvironment.getClosestCollision blocks=" + blocks;
+        if (!runner.accepts(name)) {
+            return;
+        }
+        GameEnvironment environment = new BenchmarkWorld(0, blocks, SEED).environment();
+        Random random = new Random(SEED);
+        Line[] steps = new Line[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            double xPos = Utils.BORDER_SIZE + random.nextDouble() * (Utils.WINDOW_WIDTH - 2 * Utils.BORDER_SIZE);
+            double yPos = Utils.BORDER_SIZE + random.nextDouble() * (Utils.WINDOW_HEIGHT - 2 * Utils.BORDER_SIZE);
+            double angle = random.nextDouble() * 2 * Math.PI;
+            steps[i] = new Line(xPos, yPos, xPos + STEP_LENGTH * Math.cos(angle),
+                    yPos + STEP_LENGTH * Math.sin(angle));
+        }
+        int[] next = new int[1];
+        runner.run(name, () -> {
+            int i = next[0]++ & (INPUTS - 1);
+            CollisionInfo info = environment.getClosestCollision(steps[i]);
+            return info == null ? 0 : 1;
+        });
+    }
+
+    /**
+     * Gives a random line of the given length inside the window.
+     *
+     * @param random the random generator.
+     * @param length the length of the line.
+     * @return the line.
+     */
+    private static Line randomLine(Random random, double length) {
+        double xPos = random.nextDouble() * Utils.WINDOW_WIDTH;
+        double yPos = random.nextDouble() * Utils.WINDOW_HEIGHT;
+        double angle = random.nextDouble() * 2 * Math.PI;
+        return new Line(xPos, yPos, xPos + length * Math.cos(angle), yPos + length * Math.sin(angle));
+    }
+}
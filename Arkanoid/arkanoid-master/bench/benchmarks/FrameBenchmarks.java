@@ -0,0 +1,169 @@
+package benchmarks;
+
+import animation.AnimationRunner;
+import animation.GameLevel;
+import general.GameEnvironment;
+import general.Utils;
+import geometry.Ball;
+import geometry.BallSystem;
+import geometry.Velocity;
+import levels.LevelFromReader;
+import levels.LevelSpecificationReader;
+import simulation.ScriptedKeyboardSensor;
+import sprites.SpriteCollection;
+import sprites.blocks.BaseBlock;
+import surfaces.NullDrawSurface;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+
+/**
+ * FrameBenchmarks class.
+ * <p>
+ * Benchmarks of whole frames: the time passed of the sprites of a
+ * synthetic world, and a full frame (physics steps and drawing on a null
+ * surface) of every level of the shipped level files.
+ */
+public class FrameBenchmarks {
+    private static final long SEED = 42;
+    private static final String[] LEVEL_FILES = {"easy_level_definitions.txt", "hard_level_definitions.txt",
+            "extreme_level_definitions.txt", "taste_level_definitions.txt"};
+    private static final String SCRIPT = "right*90 left*150 none*20 right*60";
+
+    /**
+     * Runs the frame benchmarks.
+     *
+     * @param runner      the benchmark runner.
+     * @param ballCounts  the ball counts to run with.
+     * @param blockCounts the block counts to run with.
+     */
+    public static void run(BenchmarkRunner runner, int[] ballCounts, int[] blockCounts) {
+        for (int balls : ballCounts) {
+            for (int blocks : blockCounts) {
+                timePassed(runner, balls, blocks);
+                ballSystem(runner, balls, blocks);
+            }
+        }
+        for (String file : LEVEL_FILES) {
+            int levels = loadLevels(file).size();
+            for (int i = 0; i < levels; i++) {
+                levelFrame(runner, file, i);
+            }
+        }
+    }
+
+    /**
+     * Benchmarks SpriteCollection.notifyAllTimePassed of balls that bounce
+     * forever between four borders and the given number of blocks.
+     *
+     * @param runner the benchmark runner.
+     * @param balls  the number of balls.
+     * @param blocks the number of blocks.
+     */
+    private static void timePassed(BenchmarkRunner runner, int balls, int blocks) {
+        String name = "SpriteCollection.notifyAllTimePassed balls=" + balls + " blocks=" + blocks;
+        if (!runner.accepts(name)) {
+            return;
+        }
+        BenchmarkWorld world = new BenchmarkWorld(balls, blocks, SEED);
+        GameEnvironment environment = world.environment();
+        SpriteCollection sprites = new SpriteCollection();
+        for (BaseBlock block : world.blocks()) {
+            sprites.addSprite(block);
+        }
+        for (Velocity velocity : world.velocities()) {
+            // balls start under the blocks
+            sprites.addSprite(new Ball(Utils.STARTING_POINT, Utils.BALL_SIZE, velocity, environment));
+        }
+        double dt = 1.0D / Utils.PHYSICS_STEPS_PER_SECOND;
+        runner.run(name, () -> {
+            sprites.notifyAllTimePassed(dt);
+            return 1;
+        });
+    }
+
+    /**
+     * Benchmarks BallSystem.timePassed and drawing of the same world as
+     * the timePassed benchmark, with all the balls in one ball system.
+     *
+     * @param runner the benchmark runner.
+     * @param balls  the number of balls.
+     * @param blocks the number of blocks.
+     */
+    private static void ballSystem(BenchmarkRunner runner, int balls, int blocks) {
+        String name = "BallSystem.frame balls=" + balls + " blocks=" + blocks;
+        if (!runner.accepts(name)) {
+            return;
+        }
+        BenchmarkWorld world = new BenchmarkWorld(balls, blocks, SEED);
+        BallSystem system = new BallSystem(world.environment(), Color.WHITE);
+        for (Velocity velocity : world.velocities()) {
+            system.addBall(velocity);
+        }
+        NullDrawSurface surface = new NullDrawSurface(Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT);
+        double dt = 1.0D / Utils.PHYSICS_STEPS_PER_SECOND;
+        runner.run(name, () -> {
+            system.timePassed(dt);
+            system.drawOn(surface, 1);
+            return system.size();
+        });
+    }
+
+    /**
+     * Benchmarks a full frame of a shipped level: the physics steps of one
+     * display frame and the drawing. When the turn ends a new one starts,
+     * and when the level ends it is loaded again.
+     *
+     * @param runner the benchmark runner.
+     * @param file   the level file.
+     * @param index  the index of the level in the file.
+     */
+    private static void levelFrame(BenchmarkRunner runner, String file, int index) {
+        String name = "GameLevel.frame " + file.replace("_level_definitions.txt", "") + "#" + index;
+        if (!runner.accepts(name)) {
+            return;
+        }
+        NullDrawSurface surface = new NullDrawSurface(Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT);
+        ScriptedKeyboardSensor keyboard = ScriptedKeyboardSensor.fromString(SCRIPT);
+        AnimationRunner animationRunner = new AnimationRunner(surface);
+        int stepsPerFrame = Math.max(1, Utils.PHYSICS_STEPS_PER_SECOND / Utils.FRAMES_PER_SECOND);
+        double dt = 1.0D / Utils.PHYSICS_STEPS_PER_SECOND;
+        GameLevel[] level = new GameLevel[1];
+        runner.run(name, () -> {
+            if (level[0] == null || level[0].getNumBlocks() == 0) {
+                level[0] = new GameLevel(loadLevels(file).get(index), keyboard, animationRunner, 0, Utils.LIVES);
+                level[0].initialize();
+                level[0].startTurn();
+            } else if (level[0].shouldStop()) {
+                level[0].startTurn();
+            }
+            for (int i = 0; i < stepsPerFrame; i++) {
+                keyboard.beforeStep();
+                level[0].step(dt);
+            }
+            level[0].drawFrame(surface, 1);
+            return level[0].getScore();
+        });
+    }
+
+    /**
+     * Loads the levels of a level definitions resource.
+     *
+     * @param path the path of the resource.
+     * @return the levels.
+     */
+    private static List<LevelFromReader> loadLevels(String path) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            throw new RuntimeException("failed to find the levels " + path);
+        }
+        try {
+            return LevelSpecificationReader.fromReader(new InputStreamReader(is));
+        } catch (IOException e) {
+            throw new RuntimeException("failed to load the levels");
+        }
+    }
+}
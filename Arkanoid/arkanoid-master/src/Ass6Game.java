@@ -9,17 +9,24 @@ import biuoop.GUI;
 import biuoop.KeyboardSensor;
 import biuoop.Sleeper;
 import scores.HighScoresTable;
+import scores.Leaderboard;
 import menu.Task;
 import general.Utils;
 import general.GameFlow;
-import levels.LevelFromReader;
+import levels.LevelLoader;
 import levels.LevelSets;
-import levels.LevelSpecificationReader;
+import levels.LevelSource;
+import replay.Replay;
+import replay.ReplayKeyboardSensor;
+import replay.ReplayRecorder;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Ass6Game class.
@@ -29,9 +36,54 @@ public class Ass6Game {
     /**
      * Runs the game.
      *
-     * @param args a path for level sets file.
+     * @param args a path for level sets file, and the options
+     *             --dirty-repaint to repaint only the changed regions,
+     *             --retention=N to keep the top N scores of every level set,
+     *             --seed=N to seed the random numbers of the games,
+     *             --record=FILE to record every started game into FILE and
+     *             --replay=FILE to play the game recorded in FILE.
      */
     public static void main(String[] args) {
+        // split the options from the level sets path
+        boolean dirtyRepaint = false;
+        Long seed = null;
+        File recordFile = null;
+        File replayFile = null;
+        List<String> paths = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--dirty-repaint")) {
+                dirtyRepaint = true;
+            } else if (arg.startsWith("--retention=")) {
+                int retention;
+                try {
+                    retention = Integer.parseInt(arg.substring("--retention=".length()));
+                } catch (NumberFormatException e) {
+                    retention = 0;
+                }
+                if (retention < 1) {
+                    usage("bad option " + arg + ", the retention must be a whole number of at least 1");
+                    return;
+                }
+                Utils.scoresStore().getLeaderboard().setRetention(retention);
+            } else if (arg.startsWith("--seed=")) {
+                try {
+                    seed = Long.parseLong(arg.substring("--seed=".length()));
+                } catch (NumberFormatException e) {
+                    usage("bad option " + arg + ", the seed must be a whole number");
+                    return;
+                }
+            } else if (arg.startsWith("--record=")) {
+                recordFile = new File(arg.substring("--record=".length()));
+            } else if (arg.startsWith("--replay=")) {
+                replayFile = new File(arg.substring("--replay=".length()));
+            } else {
+                paths.add(arg);
+            }
+        }
+        boolean isDirtyRepaint = dirtyRepaint;
+        Long gameSeed = seed;
+        File gameRecordFile = recordFile;
+
         // init some basics
         GUI gui = new GUI("Arkanoid", Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT);
         Sleeper sleeper = new Sleeper();
@@ -39,13 +91,20 @@ public class Ass6Game {
         KeyboardSensor keyboard = gui.getKeyboardSensor();
         DialogManager dialog = gui.getDialogManager();
 
+        // play a recorded game instead of the menu
+        if (replayFile != null) {
+            replay(Replay.load(replayFile), runner, dialog, isDirtyRepaint);
+            gui.close();
+            return;
+        }
+
         // the level sets (get as arg or default)
         LevelSets levelSets;
 
-        if (args.length > 0) {
+        if (!paths.isEmpty()) {
             // get level sets as arg
             try {
-                InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(args[0]);
+                InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(paths.get(0));
                 levelSets = LevelSets.fromReader(new InputStreamReader(is));
             } catch (IOException e) {
                 throw new RuntimeException("failed loading level sets");
@@ -61,35 +120,57 @@ public class Ass6Game {
             levelSetsMenu.addSelection(levelSet.getKey(), levelSet.getMessage(), new Task() {
                 @Override
                 public Object run() {
+                    // every level is loaded only when it is reached
+                    LevelSource levels = LevelLoader.source(levelSet.getPath());
+                    long levelsSeed = gameSeed != null ? gameSeed : new Random().nextLong();
+                    // the keyboard of the game, recorded if asked
+                    ReplayRecorder recorder = null;
+                    KeyboardSensor gameKeyboard = keyboard;
+                    if (gameRecordFile != null) {
+                        recorder = new ReplayRecorder(keyboard,
+                                new Replay(levelsSeed, levelSet.getKey(), levelSet.getPath()));
+                        runner.setStepListener(recorder);
+                        gameKeyboard = recorder;
+                    }
+                    GameFlow gameFlow = new GameFlow(runner, gameKeyboard, dialog);
+                    gameFlow.setDirtyRepaint(isDirtyRepaint);
+                    gameFlow.setLevelSetKey(levelSet.getKey());
+                    gameFlow.setSeed(levelsSeed);
                     try {
-                        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(levelSet.getPath());
-                        List<LevelFromReader> levels = LevelSpecificationReader.fromReader(new InputStreamReader(is));
-                        GameFlow gameFlow = new GameFlow(runner, keyboard, dialog);
                         gameFlow.runLevels(levels);
-                    } catch (IOException e) {
-                        throw new RuntimeException("failed to load the levels");
+                    } finally {
+                        if (recorder != null) {
+                            runner.setStepListener(null);
+                            recorder.finish().save(gameRecordFile);
+                        }
                     }
 
                     return null;
                 }
             });
         }
+        // manage high scores menu, the scores of every level set
+        Menu<Task<Void>> scoresMenu = new MenuAnimation<>("High Scores", keyboard, runner);
+        List<String> levelSetKeys = new ArrayList<>();
+        for (LevelSets.LevelSet levelSet : levelSets.getLevelSetList()) {
+            scoresMenu.addSelection(levelSet.getKey(), levelSet.getMessage(),
+                    highScoresTask(runner, keyboard, levelSet.getKey()));
+            levelSetKeys.add(levelSet.getKey());
+        }
+        // the scores of before the level sets had their own, if there are
+        if (Utils.scoresStore().getLeaderboard().hasScores(Leaderboard.DEFAULT_KEY) && !levelSetKeys.contains("o")) {
+            scoresMenu.addSelection("o", "Older Scores", highScoresTask(runner, keyboard, Leaderboard.DEFAULT_KEY));
+        }
         // manage main menu
         Menu<Task<Void>> mainMenu = new MenuAnimation<>("Main Menu", keyboard, runner);
         // add level sets menu as start game option
         mainMenu.addSubMenu("s", "Start Game", levelSetsMenu);
-        // add high scores option
-        mainMenu.addSelection("h", "High Scores", new Task() {
-            public Void run() {
-                // load scoresTable
-                HighScoresTable scoresTable = Utils.scoresTable();
-                runner.run(new KeyPressStoppableAnimation(keyboard, "space", new HighScoresAnimation(scoresTable)));
-                return null;
-            }
-        });
+        // add high scores menu
+        mainMenu.addSubMenu("h", "High Scores", scoresMenu);
         // add exit option
         mainMenu.addSelection("e", "Exit", new Task() {
             public Void run() {
+                Utils.scoresStore().flush();
                 gui.close();
                 return null;
             }
@@ -101,4 +182,60 @@ public class Ass6Game {
             mainMenu.reset();
         }
     }
+
+    /**
+     * Prints what is wrong with the options and how to run the game, and
+     * exits.
+     *
+     * @param message what is wrong.
+     */
+    private static void usage(String message) {
+        System.out.println(message);
+        System.out.println("usage: Ass6Game [level sets path] [--dirty-repaint] [--retention=N] [--seed=N]"
+                + " [--record=FILE] [--replay=FILE]");
+        System.exit(1);
+    }
+
+    /**
+     * Plays a recorded game: its level set with its seed, and the recorded
+     * keys instead of the keyboard. The high scores are left as they are.
+     *
+     * @param replay       the recorded game.
+     * @param runner       the animation runner.
+     * @param dialog       the dialog manager.
+     * @param dirtyRepaint true for the dirty-rectangle mode.
+     */
+    private static void replay(Replay replay, AnimationRunner runner, DialogManager dialog, boolean dirtyRepaint) {
+        ReplayKeyboardSensor player = new ReplayKeyboardSensor(replay);
+        runner.setStepListener(player);
+        GameFlow gameFlow = new GameFlow(runner, player, dialog);
+        gameFlow.setDirtyRepaint(dirtyRepaint);
+        gameFlow.setLevelSetKey(replay.getLevelSetKey());
+        gameFlow.setSeed(replay.getSeed());
+        gameFlow.setHighScores(false);
+        gameFlow.runLevels(LevelLoader.source(replay.getLevelSetPath()));
+        runner.setStepListener(null);
+        System.out.println("replayed " + player.getStep() + " of " + replay.steps() + " steps, score "
+                + gameFlow.getScore() + ", lives " + gameFlow.getLives());
+    }
+
+    /**
+     * Gives a task that shows the high scores of a level set.
+     *
+     * @param runner   the animation runner.
+     * @param keyboard the keyboard sensor.
+     * @param key      the key of the level set.
+     * @return the task.
+     */
+    private static Task<Void> highScoresTask(AnimationRunner runner, KeyboardSensor keyboard, String key) {
+        return new Task<Void>() {
+            public Void run() {
+                // the scoresTable, kept in memory
+                HighScoresTable scoresTable = Utils.scoresTable(key);
+                runner.run(new KeyPressStoppableAnimation(keyboard, "space",
+                        new HighScoresAnimation(keyboard, scoresTable)));
+                return null;
+            }
+        };
+    }
 }
\ No newline at end of file
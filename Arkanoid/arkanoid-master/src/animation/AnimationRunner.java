@@ -7,11 +7,29 @@ import general.Utils;
 
 /**
  * Animation runner class.
+ * <p>
+ * Stepped animations run in fixed-step mode by default: the time passed
+ * (measured by System.nanoTime) is gathered in an accumulator and consumed
+ * in fixed physics steps, and the animation is drawn once per frame,
+ * interpolated between its last two steps. A slow frame is caught up by
+ * running more steps in the next one, up to a limit.
+ * Other animations run one frame per tick.
+ * A headless runner draws on a given surface instead of a window and
+ * runs on a virtual clock, so it never sleeps and is deterministic.
  */
 public class AnimationRunner {
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    private static final long NANOS_PER_MILLI = 1000000L;
     private GUI gui;
     private Sleeper sleeper;
     private int framesPerSecond;
+    private int stepsPerSecond;
+    private int maxStepsPerFrame;
+    private boolean fixedStep;
+    private long lastRunEnd;
+    private DrawSurface headlessSurface;
+    private long virtualTime;
+    private StepListener stepListener;
 
     /**
      * Constructs an AnimationRunner by given sleeper and gui.
@@ -23,6 +41,71 @@ public class AnimationRunner {
         this.gui = gui;
         this.sleeper = sleeper;
         this.framesPerSecond = Utils.FRAMES_PER_SECOND;
+        this.stepsPerSecond = Utils.PHYSICS_STEPS_PER_SECOND;
+        this.maxStepsPerFrame = Utils.MAX_STEPS_PER_FRAME;
+        this.fixedStep = true;
+        this.lastRunEnd = 0;
+    }
+
+    /**
+     * Constructs a headless AnimationRunner that draws every frame on the
+     * given surface and runs as fast as it can.
+     *
+     * @param surface the surface to draw on (like a NullDrawSurface).
+     */
+    public AnimationRunner(DrawSurface surface) {
+        this.headlessSurface = surface;
+        this.framesPerSecond = Utils.FRAMES_PER_SECOND;
+        this.stepsPerSecond = Utils.PHYSICS_STEPS_PER_SECOND;
+        this.maxStepsPerFrame = Utils.MAX_STEPS_PER_FRAME;
+        this.fixedStep = true;
+        this.lastRunEnd = 0;
+        this.virtualTime = 0;
+    }
+
+    /**
+     * Sets the listener that is notified before every step.
+     *
+     * @param listener the step listener, or null for none.
+     */
+    public void setStepListener(StepListener listener) {
+        this.stepListener = listener;
+    }
+
+    /**
+     * Tells if the runner is headless.
+     *
+     * @return true if the runner has no window, else false.
+     */
+    public boolean isHeadless() {
+        return this.gui == null;
+    }
+
+    /**
+     * Sets the rate of the physics steps in fixed-step mode.
+     *
+     * @param newStepsPerSecond the number of steps per second.
+     */
+    public void setStepsPerSecond(int newStepsPerSecond) {
+        this.stepsPerSecond = newStepsPerSecond;
+    }
+
+    /**
+     * Sets the most steps that run in one frame to catch up with lost time.
+     *
+     * @param newMaxStepsPerFrame the most steps in one frame.
+     */
+    public void setMaxStepsPerFrame(int newMaxStepsPerFrame) {
+        this.maxStepsPerFrame = newMaxStepsPerFrame;
+    }
+
+    /**
+     * Turns the fixed-step mode on or off.
+     *
+     * @param isFixedStep true to run stepped animations in fixed steps.
+     */
+    public void setFixedStep(boolean isFixedStep) {
+        this.fixedStep = isFixedStep;
     }
 
     /**
@@ -31,23 +114,143 @@ public class AnimationRunner {
      * @param animation given animation to run.
      */
     public void run(Animation animation) {
-        long milliSecondsPerTick = 1000 / this.framesPerSecond;
+        if (this.fixedStep && animation instanceof SteppedAnimation) {
+            this.runFixedStep((SteppedAnimation) animation);
+        } else {
+            this.runPerFrame(animation);
+        }
+        // lets an outer run know that time was spent in this one
+        this.lastRunEnd = this.now();
+    }
+
+    /**
+     * Runs the animation one frame per tick.
+     *
+     * @param animation given animation to run.
+     */
+    private void runPerFrame(Animation animation) {
+        long nanosPerFrame = NANOS_PER_SECOND / this.framesPerSecond;
+        double dt = 1.0D / this.framesPerSecond;
         while (true) {
 
-            long start = System.currentTimeMillis();
+            long start = this.now();
 
-            DrawSurface ds = this.gui.getDrawSurface();
-            animation.doOneFrame(ds, milliSecondsPerTick / 1000.0D);
+            this.notifyStep();
+            DrawSurface ds = this.drawSurface();
+            animation.doOneFrame(ds, dt);
             if (animation.shouldStop()) {
                 break;
             }
-            this.gui.show(ds);
+            this.show(ds);
+
+            this.sleepUntil(start + nanosPerFrame);
+        }
+    }
+
+    /**
+     * Runs the animation in fixed steps, drawing it once per frame.
+     *
+     * @param animation given animation to run.
+     */
+    private void runFixedStep(SteppedAnimation animation) {
+        long nanosPerFrame = NANOS_PER_SECOND / this.framesPerSecond;
+        double stepDt = 1.0D / this.stepsPerSecond;
+        double accumulator = 0;
+        long previous = this.now();
+        while (true) {
+
+            long start = this.now();
+            accumulator += (start - previous) / (double) NANOS_PER_SECOND;
+            previous = start;
 
-            long tickMilliSeconds = System.currentTimeMillis() - start;
-            long milliSecondLeftToSleep = milliSecondsPerTick - tickMilliSeconds;
-            if (milliSecondLeftToSleep > 0L) {
-                this.sleeper.sleepFor(milliSecondLeftToSleep);
+            // consume the passed time in fixed steps
+            int steps = 0;
+            while (accumulator >= stepDt && steps < this.maxStepsPerFrame && !animation.shouldStop()) {
+                this.notifyStep();
+                animation.step(stepDt);
+                accumulator -= stepDt;
+                steps++;
+                // case another animation (like pause) ran inside the step
+                if (this.lastRunEnd > start) {
+                    previous = this.lastRunEnd;
+                    accumulator = 0;
+                    break;
+                }
             }
+            if (animation.shouldStop()) {
+                break;
+            }
+            // case too far behind, drop the time that can't be caught up
+            if (accumulator >= stepDt) {
+                accumulator = accumulator % stepDt;
+            }
+
+            DrawSurface ds = this.drawSurface();
+            animation.drawFrame(ds, accumulator / stepDt);
+            this.show(ds);
+
+            this.sleepUntil(start + nanosPerFrame);
+        }
+    }
+
+    /**
+     * Notifies the step listener, if any, that a step is about to run.
+     */
+    private void notifyStep() {
+        if (this.stepListener != null) {
+            this.stepListener.beforeStep();
+        }
+    }
+
+    /**
+     * Gives the surface to draw the next frame on.
+     *
+     * @return the surface to draw on.
+     */
+    private DrawSurface drawSurface() {
+        if (this.isHeadless()) {
+            return this.headlessSurface;
+        }
+        return this.gui.getDrawSurface();
+    }
+
+    /**
+     * Shows the drawn frame (nothing to show when headless).
+     *
+     * @param ds the drawn surface.
+     */
+    private void show(DrawSurface ds) {
+        if (!this.isHeadless()) {
+            this.gui.show(ds);
+        }
+    }
+
+    /**
+     * Gives the current time in nanoseconds, virtual when headless.
+     *
+     * @return the current time.
+     */
+    private long now() {
+        if (this.isHeadless()) {
+            return this.virtualTime;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Sleeps until the given time (of now()), if it is still ahead.
+     * When headless the virtual clock just jumps to the given time.
+     *
+     * @param deadline the time to sleep until.
+     */
+    private void sleepUntil(long deadline) {
+        if (this.isHeadless()) {
+            this.virtualTime = Math.max(this.virtualTime, deadline);
+            return;
+        }
+        long milliSecondLeftToSleep = (deadline - System.nanoTime()) / NANOS_PER_MILLI;
+        if (milliSecondLeftToSleep > 0L) {
+            this.sleeper.sleepFor(milliSecondLeftToSleep);
         }
     }
-}
\ No newline at end of file
+}
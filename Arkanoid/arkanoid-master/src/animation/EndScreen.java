@@ -4,6 +4,7 @@ import biuoop.DrawSurface;
 import general.Utils;
 
 import java.awt.Color;
+import java.awt.Image;
 
 /**
  * EndScreen class.
@@ -12,6 +13,7 @@ public class EndScreen implements Animation {
     private boolean stop;
     private int numLives;
     private int score;
+    private Image image;
 
     /**
      * Constructs an end screen.
@@ -23,6 +25,12 @@ public class EndScreen implements Animation {
         this.stop = false;
         this.numLives = numLives;
         this.score = score;
+        // win or lose image, decoded once
+        if (numLives > 0) {
+            this.image = Utils.winImage();
+        } else {
+            this.image = Utils.loseImage();
+        }
     }
 
     /**
@@ -42,7 +50,7 @@ public class EndScreen implements Animation {
             surface.fillRectangle(20, 20, Utils.WINDOW_WIDTH - 40, Utils.WINDOW_HEIGHT - 40);
 
             // draw image
-            surface.drawImage(280, 130, Utils.winImage());
+            surface.drawImage(280, 130, this.image);
 
             // draw oval
             surface.setColor(new Color(0, 102, 0));
@@ -65,7 +73,7 @@ public class EndScreen implements Animation {
             surface.fillRectangle(20, 20, Utils.WINDOW_WIDTH - 40, Utils.WINDOW_HEIGHT - 40);
 
             // draw image
-            surface.drawImage(280, 108, Utils.loseImage());
+            surface.drawImage(280, 108, this.image);
 
             // draw oval
             surface.setColor(new Color(153, 0, 0));
@@ -15,26 +15,36 @@ import listeners.LivesTrackingListener;
 import sprites.blocks.Border;
 import sprites.Paddle;
 import geometry.Ball;
+import geometry.BallSystem;
+import geometry.Point;
 import sprites.SpriteCollection;
 import sprites.blocks.KillingBlock;
 import sprites.ScoreIndicator;
 import sprites.LivesIndicator;
 import sprites.NameIndicator;
 import sprites.blocks.BaseBlock;
+import sprites.Layer;
 import sprites.Sprite;
 import sprites.StartingPoint;
+import sprites.StaticLayer;
+import sprites.DirtyRectangleRenderer;
 
 import java.awt.Color;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Game level class.
  */
-public class GameLevel implements Animation {
+public class GameLevel implements SteppedAnimation {
     // general
     private SpriteCollection sprites;
+    private StaticLayer staticLayer;
+    private DirtyRectangleRenderer dirtyRenderer;
     private GameEnvironment environment;
     private LevelInformation info;
+    private List<BaseBlock> blocks;
     private KeyboardSensor keyboard;
     private AnimationRunner runner;
     // listeners
@@ -44,6 +54,7 @@ public class GameLevel implements Animation {
     private LivesTrackingListener livesUpdater;
     // animation
     private boolean running;
+    private Random random;
     // paddle
     private Paddle paddle;
 
@@ -58,8 +69,14 @@ public class GameLevel implements Animation {
      */
     public GameLevel(LevelInformation info, KeyboardSensor keyboard, AnimationRunner runner, int score, int lives) {
         this.info = info;
+        // new blocks for this game
+        this.blocks = info.blocks();
         this.sprites = new SpriteCollection();
-        this.environment = new GameEnvironment(Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT, Utils.BORDER_SIZE);
+        // the static sprites are drawn first, from one cached image
+        this.staticLayer = new StaticLayer(Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT);
+        this.sprites.addSprite(this.staticLayer, Layer.BACKGROUND);
+        this.environment = new GameEnvironment(Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT, Utils.BORDER_SIZE,
+                this.gridCellWidth(), this.gridCellHeight());
         this.keyboard = keyboard;
         this.runner = runner;
         this.paddle = new Paddle(info.paddleWidth(), Utils.PADDLE_HEIGHT, info.paddleSpeed(), environment, keyboard);
@@ -67,6 +84,46 @@ public class GameLevel implements Animation {
         this.livesUpdater = new LivesTrackingListener(new Counter(lives));
         this.blockRemover = new BlockRemover(this, new Counter(info.numberOfBlocksToRemove()));
         this.ballRemover = new BallRemover(this, new Counter(info.numberOfBalls()));
+        this.random = new Random();
+    }
+
+    /**
+     * Sets the random numbers of the level, like the seeded ones of a game,
+     * to be set before initialize.
+     *
+     * @param newRandom the random numbers.
+     */
+    public void setRandom(Random newRandom) {
+        this.random = newRandom;
+    }
+
+    /**
+     * Gives the width of the collision grid cells, the narrowest block width.
+     *
+     * @return the width of the collision grid cells.
+     */
+    private int gridCellWidth() {
+        int cellWidth = Integer.MAX_VALUE;
+        for (BaseBlock block : this.blocks) {
+            cellWidth = Math.min(cellWidth, block.getWidth());
+        }
+        // case no blocks or too thin blocks use the default
+        if (cellWidth == Integer.MAX_VALUE || cellWidth < Utils.BALL_SIZE) {
+            return Utils.GRID_CELL_WIDTH;
+        }
+        return cellWidth;
+    }
+
+    /**
+     * Gives the height of the collision grid cells, the row height of the level.
+     *
+     * @return the height of the collision grid cells.
+     */
+    private int gridCellHeight() {
+        if (this.info.rowHeight() < Utils.BALL_SIZE) {
+            return Utils.GRID_CELL_HEIGHT;
+        }
+        return this.info.rowHeight();
     }
 
     /**
@@ -77,7 +134,7 @@ public class GameLevel implements Animation {
         // background with shapes on it
         this.info.getBackground().addToGame(this);
 
-        Color borderColor = Utils.getRandomStdBorderColor();
+        Color borderColor = Utils.getRandomStdBorderColor(this.random);
         // borders up, right and left (numbers clockwise 1 - up, 2 - right etc.)
         new Border(0, Utils.BORDER_SIZE, Utils.WINDOW_WIDTH, Utils.BORDER_SIZE, borderColor).addToGame(this);
         new Border(0, Utils.BORDER_SIZE, Utils.BORDER_SIZE, Utils.WINDOW_HEIGHT, borderColor).addToGame(this);
@@ -96,8 +153,7 @@ public class GameLevel implements Animation {
         new NameIndicator(this).addToGame();
 
         // the blocks with their listeners
-        List<BaseBlock> blocks = this.info.blocks();
-        for (BaseBlock block : blocks) {
+        for (BaseBlock block : this.blocks) {
             block.addHitListener(this.blockRemover);
             block.addHitListener(this.scoreUpdater);
             block.addToGame(this);
@@ -112,6 +168,18 @@ public class GameLevel implements Animation {
      */
     @Override
     public void doOneFrame(DrawSurface surface, double dt) {
+        this.drawFrame(surface, 1);
+        this.step(dt);
+    }
+
+    /**
+     * Advances the level by one step: checks pause and the stopping
+     * conditions and notifies the sprites that time passed.
+     *
+     * @param dt keeps the speed according to seconds.
+     */
+    @Override
+    public void step(double dt) {
         // run pause if press p
         if (this.keyboard.isPressed("p")) {
             this.runner.run(new KeyPressStoppableAnimation(this.keyboard,
@@ -132,11 +200,50 @@ public class GameLevel implements Animation {
             this.scoreUpdater.getCurrentScore().increase(100);
         }
 
-        // draw sprites and notify time passed
-        this.sprites.drawAllOn(surface);
+        // notify time passed
         this.sprites.notifyAllTimePassed(dt);
     }
 
+    /**
+     * Draws the sprites, the moving ones between their last two steps.
+     *
+     * @param surface drawSurface to draw on.
+     * @param alpha   the part of a step passed since the last step.
+     */
+    @Override
+    public void drawFrame(DrawSurface surface, double alpha) {
+        if (this.dirtyRenderer != null) {
+            this.dirtyRenderer.drawOn(surface, alpha);
+        } else {
+            this.sprites.drawAllOn(surface, alpha);
+        }
+    }
+
+    /**
+     * Turns the dirty-rectangle repaint mode on or off. In this mode the
+     * frame is composited in a kept back buffer, and only the regions that
+     * changed are composited again.
+     *
+     * @param dirtyRepaint true for the dirty-rectangle mode.
+     */
+    public void setDirtyRepaint(boolean dirtyRepaint) {
+        if (!dirtyRepaint) {
+            this.dirtyRenderer = null;
+        } else if (this.dirtyRenderer == null) {
+            this.dirtyRenderer = new DirtyRectangleRenderer(this.staticLayer, this.sprites,
+                    Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT);
+        }
+    }
+
+    /**
+     * Gives the average pixels touched per frame in the dirty-rectangle mode.
+     *
+     * @return the average pixels per frame, 0 if not in the mode.
+     */
+    public double getAveragePixelsPerFrame() {
+        return this.dirtyRenderer == null ? 0 : this.dirtyRenderer.getAveragePixels();
+    }
+
     /**
      * Tells if animation should stop.
      *
@@ -152,15 +259,24 @@ public class GameLevel implements Animation {
      */
     public void playOneTurn() {
         // first create paddle and balls
-        this.createPaddleAndBalls();
-        // run countdown from 3 (3, 2, 1 and GO)
-        this.runner.run(new CountDownAnimation(500, 3, this.sprites));
-        // is running
-        this.running = true;
+        this.startTurn();
+        // run countdown from 3 (3, 2, 1 and GO), not needed without a window
+        if (!this.runner.isHeadless()) {
+            this.runner.run(new CountDownAnimation(500, 3, this.sprites));
+        }
         // run this
         this.runner.run(this);
     }
 
+    /**
+     * Starts a turn without running it: creates a new paddle and balls and
+     * marks the level as running, so it can be stepped by the caller.
+     */
+    public void startTurn() {
+        this.createPaddleAndBalls();
+        this.running = true;
+    }
+
     /**
      * Creates a new paddle and balls.
      */
@@ -171,6 +287,15 @@ public class GameLevel implements Animation {
                 environment, keyboard);
         this.paddle.addToGame(this);
 
+        // many balls are kept in one ball system
+        if (this.info.numberOfBalls() >= Utils.BALL_SYSTEM_THRESHOLD) {
+            BallSystem balls = new BallSystem(this.environment, Color.WHITE);
+            for (int i = 0; i < this.info.numberOfBalls(); i++) {
+                balls.addBall(this.info.initialBallVelocities().get(i));
+            }
+            balls.addToGame(this);
+            return;
+        }
         // create and add balls according to numBalls
         for (int i = 0; i < this.info.numberOfBalls(); i++) {
             new Ball(this.info.initialBallVelocities().get(i), this.environment).addToGame(this);
@@ -195,6 +320,36 @@ public class GameLevel implements Animation {
         this.sprites.addSprite(sprite);
     }
 
+    /**
+     * Adds a sprite object on top of the given layer.
+     *
+     * @param sprite a sprite object.
+     * @param layer  the layer to draw the sprite in.
+     */
+    public void addSprite(Sprite sprite, Layer layer) {
+        this.sprites.addSprite(sprite, layer);
+    }
+
+    /**
+     * Adds a sprite that looks the same until it is hit or removed, it is
+     * drawn from the cached static layer.
+     *
+     * @param sprite a static sprite.
+     */
+    public void addStaticSprite(Sprite sprite) {
+        this.staticLayer.addSprite(sprite);
+    }
+
+    /**
+     * Tells that a static sprite changed its look, so its area of the
+     * static layer is drawn again.
+     *
+     * @param sprite the changed static sprite.
+     */
+    public void invalidateStaticSprite(Sprite sprite) {
+        this.staticLayer.invalidate(sprite);
+    }
+
     /**
      * Removes collidable.
      *
@@ -210,7 +365,9 @@ public class GameLevel implements Animation {
      * @param sprite the sprite to remove.
      */
     public void removeSprite(Sprite sprite) {
-        this.sprites.removeSprite(sprite);
+        if (!this.staticLayer.removeSprite(sprite)) {
+            this.sprites.removeSprite(sprite);
+        }
     }
 
     /**
@@ -258,6 +415,27 @@ public class GameLevel implements Animation {
         return this.scoreUpdater.getCurrentScore().getValue();
     }
 
+    /**
+     * Gives the centers of the balls in play, in the order they are drawn,
+     * including the balls of a ball system.
+     *
+     * @return the centers of the balls.
+     */
+    public List<Point> getBallCenters() {
+        List<Point> centers = new ArrayList<>();
+        for (Sprite sprite : this.sprites) {
+            if (sprite instanceof Ball) {
+                centers.add(((Ball) sprite).getCenter());
+            } else if (sprite instanceof BallSystem) {
+                BallSystem balls = (BallSystem) sprite;
+                for (int i = 0; i < balls.size(); i++) {
+                    centers.add(new Point(balls.getX(i), balls.getY(i)));
+                }
+            }
+        }
+        return centers;
+    }
+
     /**
      * Gives the name of the level.
      *
@@ -1,7 +1,9 @@
 package animation;
 
 import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
 import scores.HighScoresTable;
+import scores.ScoreInfo;
 import general.Utils;
 
 import java.awt.Color;
@@ -10,33 +12,67 @@ import java.util.List;
 
 /**
  * HighScoresAnimation class.
+ * <p>
+ * Shows the scores a page at a time, the left and right keys turn the
+ * pages. Only the scores of the shown page are taken from the table.
  */
 public class HighScoresAnimation implements Animation {
     private boolean stop;
+    private KeyboardSensor keyboard;
     private HighScoresTable scoresTable;
     private int curRank;
+    private int page;
+    private boolean wasTurning;
 
     /**
-     * Constructs a highScoresAnimation.
+     * Constructs a highScoresAnimation, opened at the page of the rank.
      *
+     * @param keyboard    the keyboard sensor, to turn the pages.
      * @param scoresTable the scores table.
-     * @param curRank the rank of the score.
+     * @param curRank     the rank of the score, -1 for none.
      */
-    public HighScoresAnimation(HighScoresTable scoresTable, int curRank) {
+    public HighScoresAnimation(KeyboardSensor keyboard, HighScoresTable scoresTable, int curRank) {
         this.stop = false;
+        this.keyboard = keyboard;
         this.scoresTable = scoresTable;
         this.curRank = curRank;
+        this.page = curRank > 0 ? (curRank - 1) / Utils.SCORES_PAGE_SIZE : 0;
+        this.wasTurning = true;
     }
 
     /**
      * Constructs a highScoresAnimation.
      *
+     * @param keyboard    the keyboard sensor, to turn the pages.
      * @param scoresTable the scores table.
      */
-    public HighScoresAnimation(HighScoresTable scoresTable) {
-        this.stop = false;
-        this.scoresTable = scoresTable;
-        this.curRank = -1;
+    public HighScoresAnimation(KeyboardSensor keyboard, HighScoresTable scoresTable) {
+        this(keyboard, scoresTable, -1);
+    }
+
+    /**
+     * Gives the number of the pages.
+     *
+     * @return the number of the pages, at least 1.
+     */
+    private int pages() {
+        return Math.max(1, (this.scoresTable.scoresCount() + Utils.SCORES_PAGE_SIZE - 1) / Utils.SCORES_PAGE_SIZE);
+    }
+
+    /**
+     * Turns the page once per press of the left or right key.
+     */
+    private void turnPage() {
+        boolean left = this.keyboard.isPressed(KeyboardSensor.LEFT_KEY);
+        boolean right = this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY);
+        if (!this.wasTurning) {
+            if (left) {
+                this.page = Math.max(0, this.page - 1);
+            } else if (right) {
+                this.page = Math.min(this.pages() - 1, this.page + 1);
+            }
+        }
+        this.wasTurning = left || right;
     }
 
     /**
@@ -47,6 +83,8 @@ public class HighScoresAnimation implements Animation {
      */
     @Override
     public void doOneFrame(DrawSurface surface, double dt) {
+        this.turnPage();
+
         // blue frame
         surface.setColor(new Color(61, 61, 153));
         surface.fillRectangle(0, 0, Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT);
@@ -77,27 +115,33 @@ public class HighScoresAnimation implements Animation {
         surface.setColor(Color.MAGENTA);
         surface.drawText(xPos, 180, "HIGHEST SCORES", 45);
 
-        for (int i = 0; i < Math.min(this.scoresTable.getHighScores().size(), Utils.SCORES_TABLE_SIZE); i++) {
+        // only the scores of this page
+        int first = this.page * Utils.SCORES_PAGE_SIZE;
+        List<ScoreInfo> scores = this.scoresTable.getHighScores(first, Utils.SCORES_PAGE_SIZE);
+        for (int i = 0; i < scores.size(); i++) {
+            int rank = first + i + 1;
             // highlight cur rank
-            if (i == this.curRank - 1) {
+            if (rank == this.curRank) {
                 surface.setColor(new Color(238, 232, 170));
                 surface.fillRectangle(xPos - 10, yPos + 52 * i - 30, 420, 40);
             }
 
             // scores in black
             surface.setColor(Color.BLACK);
-            surface.drawText(xPos - 2, yPos + 52 * i - 2, i + 1 + ".", 35);
-            surface.drawText(xPos + 50 - 2, yPos + 52 * i - 2,
-                    scoresTable.getHighScores().get(i).getName(), 35);
-            surface.drawText(xPos + 300 - 2, yPos + 52 * i - 2,
-                    scoresTable.getHighScores().get(i).getScore() + "", 35);
+            surface.drawText(xPos - 2, yPos + 52 * i - 2, rank + ".", 35);
+            surface.drawText(xPos + 90 - 2, yPos + 52 * i - 2, scores.get(i).getName(), 35);
+            surface.drawText(xPos + 300 - 2, yPos + 52 * i - 2, scores.get(i).getScore() + "", 35);
             // scores in changing color
-            surface.setColor(colors.get(i));
-            surface.drawText(xPos, yPos + 52 * i, i + 1 + ".", 35);
-            surface.drawText(xPos + 50, yPos + 52 * i,
-                    scoresTable.getHighScores().get(i).getName(), 35);
-            surface.drawText(xPos + 300, yPos + 52 * i,
-                    scoresTable.getHighScores().get(i).getScore() + "", 35);
+            surface.setColor(colors.get(i % colors.size()));
+            surface.drawText(xPos, yPos + 52 * i, rank + ".", 35);
+            surface.drawText(xPos + 90, yPos + 52 * i, scores.get(i).getName(), 35);
+            surface.drawText(xPos + 300, yPos + 52 * i, scores.get(i).getScore() + "", 35);
+        }
+
+        // the page, and the keys to turn it
+        if (this.pages() > 1) {
+            surface.setColor(Color.BLACK);
+            surface.drawText(xPos, 505, "< page " + (this.page + 1) + " of " + this.pages() + " >", 20);
         }
     }
 
@@ -8,7 +8,9 @@ import menu.Selection;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * MenuAnimation class.
@@ -23,6 +25,8 @@ public class MenuAnimation<T> implements Menu<T> {
     private List<Selection<T>> selections;
     private List<Boolean> isSubMenu;
     private List<Menu<T>> subMenus;
+    private boolean isFirstFrame;
+    private Set<String> ignoredKeys;
 
     /**
      * Constructs a MenuAnimation.
@@ -39,6 +43,8 @@ public class MenuAnimation<T> implements Menu<T> {
         this.isSubMenu = new ArrayList<>();
         this.subMenus = new ArrayList<>();
         this.status = null;
+        this.isFirstFrame = true;
+        this.ignoredKeys = new HashSet<>();
     }
 
     /**
@@ -122,9 +128,22 @@ public class MenuAnimation<T> implements Menu<T> {
         surface.setColor(Color.BLACK);
         surface.drawText(25, Utils.WINDOW_HEIGHT - 25, "Use english keyboard", 18);
 
+        // ignore keys still held from before the menu was shown, like the key that opened it
+        if (this.isFirstFrame) {
+            this.ignoredKeys.clear();
+            for (Selection<T> selection : this.selections) {
+                if (this.keyboard.isPressed(selection.getKey())) {
+                    this.ignoredKeys.add(selection.getKey());
+                }
+            }
+            this.isFirstFrame = false;
+        }
+        this.ignoredKeys.removeIf(key -> !this.keyboard.isPressed(key));
+
         // check if one of the options pressed
         for (int i = 0; i < this.selections.size(); i++) {
-            if (this.keyboard.isPressed(this.selections.get(i).getKey())) {
+            String key = this.selections.get(i).getKey();
+            if (this.keyboard.isPressed(key) && !this.ignoredKeys.contains(key)) {
                 // if the chosen option isn't subMenu return its return value
                 if (!this.isSubMenu.get(i)) {
                     this.status = this.selections.get(i).getRetValue();
@@ -170,5 +189,6 @@ public class MenuAnimation<T> implements Menu<T> {
     @Override
     public void reset() {
         this.status = null;
+        this.isFirstFrame = true;
     }
 }
\ No newline at end of file
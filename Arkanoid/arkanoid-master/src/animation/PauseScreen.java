@@ -4,18 +4,21 @@ import biuoop.DrawSurface;
 import general.Utils;
 
 import java.awt.Color;
+import java.awt.Image;
 
 /**
  * Pause screen class.
  */
 public class PauseScreen implements Animation {
     private boolean stop;
+    private Image image;
 
     /**
      * Constructs a pause screen.
      */
     PauseScreen() {
         this.stop = false;
+        this.image = Utils.pauseImage();
     }
 
     /**
@@ -33,7 +36,7 @@ public class PauseScreen implements Animation {
         surface.fillRectangle(20, 20, Utils.WINDOW_WIDTH - 40, Utils.WINDOW_HEIGHT - 40);
 
         // draw image
-        surface.drawImage(300, 110, Utils.pauseImage());
+        surface.drawImage(300, 110, this.image);
 
         // draw oval
         surface.setColor(Color.YELLOW);
@@ -0,0 +1,16 @@
+package animation;
+
+/**
+ * StepListener interface.
+ * <p>
+ * Notified by the animation runner before every step of an animation
+ * (every physics step in fixed-step mode, else every frame), so inputs
+ * like a scripted keyboard can advance in time with the simulation.
+ */
+public interface StepListener {
+
+    /**
+     * Called before a step of the animation.
+     */
+    void beforeStep();
+}
@@ -0,0 +1,28 @@
+package animation;
+
+import biuoop.DrawSurface;
+
+/**
+ * SteppedAnimation interface.
+ * <p>
+ * An animation whose simulation can run apart from its drawing, so the
+ * runner can step it in fixed time steps and draw it once per frame.
+ */
+public interface SteppedAnimation extends Animation {
+
+    /**
+     * Advances the simulation by one step.
+     *
+     * @param dt the time of the step in seconds.
+     */
+    void step(double dt);
+
+    /**
+     * Draws the current state of the animation.
+     *
+     * @param surface drawSurface to draw on.
+     * @param alpha   the part of a step passed since the last step (0 to 1),
+     *                used to interpolate between the last two steps.
+     */
+    void drawFrame(DrawSurface surface, double alpha);
+}
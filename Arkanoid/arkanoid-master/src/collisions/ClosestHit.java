@@ -0,0 +1,182 @@
+package collisions;
+
+import geometry.Point;
+import geometry.RayHit;
+import geometry.Rectangle;
+
+/**
+ * ClosestHit class.
+ * <p>
+ * Keeps the nearest hit found so far along a trajectory together with
+ * the collidable that owns it. The time is the part of the trajectory
+ * passed until the hit (0 is the start, 1 is the end).
+ * Hits at the same time (like on an edge shared by two blocks) go to the
+ * collidable whose center is closer to the hit point, and then to the
+ * one that was added first, so the result never depends on query order.
+ * The hit is kept in primitive doubles, so one object can serve every
+ * query of a ball without creating garbage.
+ */
+public class ClosestHit {
+    private static final double TIE_EPSILON = 1e-9;
+    private double time;
+    private double pointX;
+    private double pointY;
+    private double normalX;
+    private double normalY;
+    private double depth;
+    private Collidable collidable;
+    private int order;
+    private RayHit ray;
+
+    /**
+     * Constructs an empty closest hit.
+     */
+    public ClosestHit() {
+        this.ray = new RayHit();
+        this.reset();
+    }
+
+    /**
+     * Forgets the hit, so the object can be used for a new query.
+     */
+    public void reset() {
+        this.time = Double.POSITIVE_INFINITY;
+        this.collidable = null;
+        this.order = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gives the ray hit used as scratch space by the queries of this hit.
+     *
+     * @return the scratch ray hit.
+     */
+    public RayHit ray() {
+        return this.ray;
+    }
+
+    /**
+     * Offers the entry of the given ray hit, kept only if it is closer than
+     * the current hit.
+     *
+     * @param hit       the ray hit against the collidable.
+     * @param hitObject the collidable that is hit.
+     * @param hitOrder  the order in which the collidable was added.
+     */
+    public void offer(RayHit hit, Collidable hitObject, int hitOrder) {
+        double hitTime = hit.getEntryTime();
+        // case clearly later than the current hit
+        if (hitTime > this.time + TIE_EPSILON) {
+            return;
+        }
+        // case tie, resolve by center distance and then by order
+        if (hitTime >= this.time - TIE_EPSILON && this.collidable != null) {
+            double current = centerDistance(this.collidable.getCollisionRectangle(), hit);
+            double offered = centerDistance(hitObject.getCollisionRectangle(), hit);
+            if (offered > current || (offered == current && hitOrder >= this.order)) {
+                return;
+            }
+        }
+        this.time = hitTime;
+        this.pointX = hit.getPointX();
+        this.pointY = hit.getPointY();
+        this.normalX = hit.getNormalX();
+        this.normalY = hit.getNormalY();
+        this.depth = hit.getDepth();
+        this.collidable = hitObject;
+        this.order = hitOrder;
+    }
+
+    /**
+     * Tells if a hit was found.
+     *
+     * @return true if a hit was found, else false.
+     */
+    public boolean isFound() {
+        return this.collidable != null;
+    }
+
+    /**
+     * Gives the time of the hit along the trajectory.
+     *
+     * @return the time of the hit.
+     */
+    public double getTime() {
+        return this.time;
+    }
+
+    /**
+     * Gives the point of the hit (a new point).
+     *
+     * @return the point of the hit.
+     */
+    public Point getPoint() {
+        return new Point(this.pointX, this.pointY);
+    }
+
+    /**
+     * Gives the x of the point of the hit.
+     *
+     * @return the x of the point of the hit.
+     */
+    public double getPointX() {
+        return this.pointX;
+    }
+
+    /**
+     * Gives the y of the point of the hit.
+     *
+     * @return the y of the point of the hit.
+     */
+    public double getPointY() {
+        return this.pointY;
+    }
+
+    /**
+     * Gives the x of the normal of the hit face.
+     *
+     * @return the x of the normal.
+     */
+    public double getNormalX() {
+        return this.normalX;
+    }
+
+    /**
+     * Gives the y of the normal of the hit face.
+     *
+     * @return the y of the normal.
+     */
+    public double getNormalY() {
+        return this.normalY;
+    }
+
+    /**
+     * Gives how deep the hitter already overlapped the collidable at time 0.
+     *
+     * @return the depth of the overlap, 0 if not overlapping.
+     */
+    public double getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Gives the collidable that is hit.
+     *
+     * @return the collidable that is hit.
+     */
+    public Collidable getCollidable() {
+        return this.collidable;
+    }
+
+    /**
+     * Gives the squared distance of the rectangle's center from the hit point.
+     *
+     * @param rectangle the rectangle.
+     * @param hit       the hit.
+     * @return the squared distance of the center from the hit point.
+     */
+    private static double centerDistance(Rectangle rectangle, RayHit hit) {
+        double dx = rectangle.getUpperLeft().getX() + rectangle.getWidth() / 2 - hit.getPointX();
+        double dy = rectangle.getUpperLeft().getY() + rectangle.getHeight() / 2 - hit.getPointY();
+        return dx * dx + dy * dy;
+    }
+}
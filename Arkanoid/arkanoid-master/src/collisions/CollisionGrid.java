@@ -0,0 +1,306 @@
+package collisions;
+
+import geometry.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CollisionGrid class.
+ * <p>
+ * A uniform grid over the game window that maps every cell to the
+ * collidables whose collision rectangle overlaps it, so a trajectory
+ * has to be tested only against the collidables of the cells it passes.
+ * Cells on the edges of the grid are unbounded outwards, so collidables
+ * that stick out of the window (like the killing block) are still found.
+ * Every collidable knows its index in each of its cells, so removing it
+ * swaps the last collidable of the cell into its place, in O(1) per cell.
+ */
+public class CollisionGrid {
+    private static final double EPSILON = 0.001;
+    private int cellWidth;
+    private int cellHeight;
+    private int columns;
+    private int rows;
+    private List<List<Collidable>> cells;
+    private Map<Collidable, Entry> entries;
+    private int nextOrder;
+
+    /**
+     * Constructs a grid that covers the given area by given cell sizes.
+     *
+     * @param width      the width of the covered area.
+     * @param height     the height of the covered area.
+     * @param cellWidth  the width of one cell.
+     * @param cellHeight the height of one cell.
+     */
+    public CollisionGrid(int width, int height, int cellWidth, int cellHeight) {
+        this.cellWidth = Math.max(1, cellWidth);
+        this.cellHeight = Math.max(1, cellHeight);
+        this.columns = Math.max(1, (width + this.cellWidth - 1) / this.cellWidth);
+        this.rows = Math.max(1, (height + this.cellHeight - 1) / this.cellHeight);
+        this.cells = new ArrayList<>();
+        for (int i = 0; i < this.columns * this.rows; i++) {
+            this.cells.add(new ArrayList<>());
+        }
+        this.entries = new HashMap<>();
+        this.nextOrder = 0;
+    }
+
+    /**
+     * Gives the width of one cell.
+     *
+     * @return the width of one cell.
+     */
+    public int getCellWidth() {
+        return this.cellWidth;
+    }
+
+    /**
+     * Gives the height of one cell.
+     *
+     * @return the height of one cell.
+     */
+    public int getCellHeight() {
+        return this.cellHeight;
+    }
+
+    /**
+     * Adds the given collidable to the cells its rectangle overlaps.
+     *
+     * @param collidable the collidable to add.
+     */
+    public void add(Collidable collidable) {
+        if (this.entries.containsKey(collidable)) {
+            return;
+        }
+        Entry entry = new Entry(this.nextOrder++);
+        this.entries.put(collidable, entry);
+        this.insert(collidable, entry, this.rangeOf(collidable.getCollisionRectangle()));
+    }
+
+    /**
+     * Removes the given collidable from the grid.
+     *
+     * @param collidable the collidable to remove.
+     */
+    public void remove(Collidable collidable) {
+        Entry entry = this.entries.remove(collidable);
+        if (entry != null) {
+            this.erase(entry);
+        }
+    }
+
+    /**
+     * Tells if the given collidable is in the grid.
+     *
+     * @param collidable the collidable.
+     * @return true if the collidable is in the grid, else false.
+     */
+    public boolean contains(Collidable collidable) {
+        return this.entries.containsKey(collidable);
+    }
+
+    /**
+     * Moves the given collidable to the cells its rectangle overlaps now.
+     * Should be called whenever a registered collidable moves.
+     *
+     * @param collidable the moved collidable.
+     */
+    public void update(Collidable collidable) {
+        Entry entry = this.entries.get(collidable);
+        if (entry == null) {
+            return;
+        }
+        int[] newRange = this.rangeOf(collidable.getCollisionRectangle());
+        // nothing to do while it stays in the same cells
+        if (Arrays.equals(entry.range, newRange)) {
+            return;
+        }
+        this.erase(entry);
+        this.insert(collidable, entry, newRange);
+    }
+
+    /**
+     * Gives the order in which the given collidable was added to the grid.
+     *
+     * @param collidable the collidable.
+     * @return the order of adding, or Integer.MAX_VALUE if not in the grid.
+     */
+    public int orderOf(Collidable collidable) {
+        Entry entry = this.entries.get(collidable);
+        return entry == null ? Integer.MAX_VALUE : entry.order;
+    }
+
+    /**
+     * Gives the collidables of the given cell.
+     * The list must not be changed by the caller.
+     *
+     * @param col the column of the cell.
+     * @param row the row of the cell.
+     * @return the collidables of the cell.
+     */
+    public List<Collidable> cell(int col, int row) {
+        return this.cells.get(row * this.columns + col);
+    }
+
+    /**
+     * Checks if the segment, thickened by the margin, crosses the given cell.
+     * Edge cells are open to the outside of the grid.
+     *
+     * @param x0     the x of the start of the segment.
+     * @param y0     the y of the start of the segment.
+     * @param x1     the x of the end of the segment.
+     * @param y1     the y of the end of the segment.
+     * @param margin the thickness around the segment (like a ball radius).
+     * @param col    the column of the cell.
+     * @param row    the row of the cell.
+     * @return true if the segment crosses the cell, else false.
+     */
+    public boolean isSegmentInCell(double x0, double y0, double x1, double y1, double margin, int col, int row) {
+        double grow = margin + EPSILON;
+        double minX = col == 0 ? Double.NEGATIVE_INFINITY : col * this.cellWidth - grow;
+        double maxX = col == this.columns - 1 ? Double.POSITIVE_INFINITY : (col + 1) * this.cellWidth + grow;
+        double minY = row == 0 ? Double.NEGATIVE_INFINITY : row * this.cellHeight - grow;
+        double maxY = row == this.rows - 1 ? Double.POSITIVE_INFINITY : (row + 1) * this.cellHeight + grow;
+
+        // clip the segment parameter [0, 1] by the slab of the x axis
+        double tMin = 0;
+        double tMax = 1;
+        double dx = x1 - x0;
+        if (dx == 0) {
+            if (x0 < minX || x0 > maxX) {
+                return false;
+            }
+        } else {
+            double t1 = (minX - x0) / dx;
+            double t2 = (maxX - x0) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+
+        // and by the slab of the y axis
+        double dy = y1 - y0;
+        if (dy == 0) {
+            if (y0 < minY || y0 > maxY) {
+                return false;
+            }
+        } else {
+            double t1 = (minY - y0) / dy;
+            double t2 = (maxY - y0) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax;
+    }
+
+    /**
+     * Gives the cells range of the given rectangle (edges included).
+     *
+     * @param rectangle the rectangle.
+     * @return {first column, first row, last column, last row}.
+     */
+    private int[] rangeOf(Rectangle rectangle) {
+        double xPos = rectangle.getUpperLeft().getX();
+        double yPos = rectangle.getUpperLeft().getY();
+        return new int[]{this.columnOf(xPos), this.rowOf(yPos),
+                this.columnOf(xPos + rectangle.getWidth()), this.rowOf(yPos + rectangle.getHeight())};
+    }
+
+    /**
+     * Gives the column of the given x position, clamped to the grid.
+     *
+     * @param xPos the x position.
+     * @return the column.
+     */
+    public int columnOf(double xPos) {
+        return Math.max(0, Math.min(this.columns - 1, (int) Math.floor(xPos / this.cellWidth)));
+    }
+
+    /**
+     * Gives the row of the given y position, clamped to the grid.
+     *
+     * @param yPos the y position.
+     * @return the row.
+     */
+    public int rowOf(double yPos) {
+        return Math.max(0, Math.min(this.rows - 1, (int) Math.floor(yPos / this.cellHeight)));
+    }
+
+    /**
+     * Inserts the collidable to the cells of the range, keeping its index in
+     * every cell.
+     *
+     * @param collidable the collidable.
+     * @param entry      the entry of the collidable.
+     * @param range      the cells range.
+     */
+    private void insert(Collidable collidable, Entry entry, int[] range) {
+        entry.range = range;
+        entry.slots = new int[(range[2] - range[0] + 1) * (range[3] - range[1] + 1)];
+        int slot = 0;
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int col = range[0]; col <= range[2]; col++) {
+                List<Collidable> cell = this.cells.get(row * this.columns + col);
+                entry.slots[slot++] = cell.size();
+                cell.add(collidable);
+            }
+        }
+    }
+
+    /**
+     * Erases the collidable of the entry from the cells of its range, moving
+     * the last collidable of every cell into its index.
+     *
+     * @param entry the entry of the collidable.
+     */
+    private void erase(Entry entry) {
+        int[] range = entry.range;
+        int slot = 0;
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int col = range[0]; col <= range[2]; col++) {
+                List<Collidable> cell = this.cells.get(row * this.columns + col);
+                int index = entry.slots[slot++];
+                Collidable last = cell.remove(cell.size() - 1);
+                if (index < cell.size()) {
+                    cell.set(index, last);
+                    Entry moved = this.entries.get(last);
+                    moved.slots[moved.slotOf(col, row)] = index;
+                }
+            }
+        }
+    }
+
+    /**
+     * The place of a collidable in the grid: its cells range, its index in
+     * every cell of the range (row by row) and the order it was added in.
+     */
+    private static class Entry {
+        private int order;
+        private int[] range;
+        private int[] slots;
+
+        /**
+         * Constructs an Entry.
+         *
+         * @param order the order of adding.
+         */
+        Entry(int order) {
+            this.order = order;
+        }
+
+        /**
+         * Gives the slot of the given cell of the range.
+         *
+         * @param col the column of the cell.
+         * @param row the row of the cell.
+         * @return the slot, an index of slots.
+         */
+        private int slotOf(int col, int row) {
+            return (row - this.range[1]) * (this.range[2] - this.range[0] + 1) + col - this.range[0];
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package creators;
 
+import general.LazyImage;
 import sprites.blocks.BaseBlock;
 
+import java.util.Collection;
+
 /**
  * BlockCreator interface.
  */
@@ -15,4 +18,18 @@ public interface BlockCreator {
      * @return the created block.
      */
     BaseBlock create(int xPos, int yPos);
+
+    /**
+     * Gives the width of the created blocks.
+     *
+     * @return the width of the created blocks.
+     */
+    int getWidth();
+
+    /**
+     * Gives the images the created blocks are filled with.
+     *
+     * @return the images, empty if none.
+     */
+    Collection<LazyImage> getImages();
 }
@@ -0,0 +1,207 @@
+package creators;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.JarEntry;
+
+/**
+ * BlockDefinitionsCache class.
+ * <p>
+ * Keeps the parsed block definitions by their resource path, so every
+ * definitions file is parsed once per process and its factory is shared by
+ * all the levels using it, and by every replay of them. The factories are
+ * never changed after they are made, so sharing them is safe.
+ * A get only checks the last modified time and size of the resource. When
+ * they changed the content is read and hashed, outside the lock so other
+ * levels can load meanwhile, and only a file whose content changed since it
+ * was parsed is parsed again.
+ */
+public class BlockDefinitionsCache {
+    private static final BlockDefinitionsCache SHARED = new BlockDefinitionsCache();
+    private Map<String, Entry> entries;
+
+    /**
+     * Constructs an empty BlockDefinitionsCache.
+     */
+    public BlockDefinitionsCache() {
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Gives the cache shared by the whole game.
+     *
+     * @return the shared cache.
+     */
+    public static BlockDefinitionsCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gives the factory of the block definitions of the given resource path,
+     * parsing them on first use or after the content changed.
+     *
+     * @param path the resource path of the block definitions.
+     * @return the factory of blocks according to symbols.
+     */
+    public BlocksFromSymbolsFactory get(String path) {
+        Entry entry;
+        synchronized (this) {
+            entry = this.entries.get(path);
+        }
+        URL url = entry != null ? entry.url : find(path);
+        String stamp = stamp(url);
+        synchronized (this) {
+            if (entry != null && stamp != null && stamp.equals(entry.stamp)) {
+                return entry.factory;
+            }
+        }
+
+        // the file may have changed, confirm by its content
+        byte[] content = read(url);
+        byte[] hash = hash(content);
+        synchronized (this) {
+            entry = this.entries.get(path);
+            if (entry != null && Arrays.equals(entry.hash, hash)) {
+                entry.stamp = stamp;
+                return entry.factory;
+            }
+        }
+        BlocksFromSymbolsFactory factory;
+        try {
+            factory = BlocksDefinitionReader.fromReader(new InputStreamReader(new ByteArrayInputStream(content)));
+        } catch (IOException e) {
+            throw new RuntimeException("failed to load the block definitions " + path);
+        }
+        synchronized (this) {
+            this.entries.put(path, new Entry(url, stamp, hash, factory));
+        }
+        return factory;
+    }
+
+    /**
+     * Gives the number of the cached definitions.
+     *
+     * @return the number of the cached definitions.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Removes all the cached definitions.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * Finds a resource on the class path.
+     *
+     * @param path the resource path.
+     * @return the URL of the resource.
+     */
+    private static URL find(String path) {
+        URL url = ClassLoader.getSystemClassLoader().getResource(path);
+        if (url == null) {
+            throw new RuntimeException("failed to find the block definitions " + path);
+        }
+        return url;
+    }
+
+    /**
+     * Gives the last modified time and size of a resource, a file or a jar
+     * entry, without reading it.
+     *
+     * @param url the URL of the resource.
+     * @return the time and size, or null if unknown.
+     */
+    private static String stamp(URL url) {
+        try {
+            if ("file".equals(url.getProtocol())) {
+                File file = new File(url.toURI());
+                return file.isFile() ? file.lastModified() + ":" + file.length() : null;
+            }
+            URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                JarEntry jarEntry = ((JarURLConnection) connection).getJarEntry();
+                return jarEntry.getTime() + ":" + jarEntry.getSize();
+            }
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the content of a resource.
+     *
+     * @param url the URL of the resource.
+     * @return the content.
+     */
+    private static byte[] read(URL url) {
+        try (InputStream in = url.openStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                bytes.write(chunk, 0, read);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("failed to read the block definitions " + url);
+        }
+    }
+
+    /**
+     * Hashes a content.
+     *
+     * @param content the content.
+     * @return the SHA-256 of the content.
+     */
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("failed to hash the block definitions", e);
+        }
+    }
+
+    /**
+     * A parsed definitions file, where it was found, and the stamp and hash
+     * of the content it was parsed from.
+     */
+    private static class Entry {
+        private URL url;
+        private String stamp;
+        private byte[] hash;
+        private BlocksFromSymbolsFactory factory;
+
+        /**
+         * Constructs an Entry.
+         *
+         * @param url     the URL of the definitions.
+         * @param stamp   the last modified time and size, null if unknown.
+         * @param hash    the hash of the content.
+         * @param factory the factory parsed from the content.
+         */
+        Entry(URL url, String stamp, byte[] hash, BlocksFromSymbolsFactory factory) {
+            this.url = url;
+            this.stamp = stamp;
+            this.hash = hash;
+            this.factory = factory;
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package creators;
 
+import general.LazyImage;
 import general.Utils;
 import general.ColorsParser;
 
-import javax.imageio.ImageIO;
 import java.awt.Color;
-import java.awt.image.BufferedImage;
-import java.io.InputStream;
 import java.io.Reader;
 import java.io.IOException;
 import java.io.LineNumberReader;
@@ -39,7 +37,7 @@ public class BlocksDefinitionReader {
         int hitPoints = 0;
         Color strokeColor = null;
         Map<Integer, Color> fillColors = new HashMap<>();
-        Map<Integer, BufferedImage> fillImages = new HashMap<>();
+        Map<Integer, String> fillImages = new HashMap<>();
 
         // line reader
         LineNumberReader lineReader = new LineNumberReader(reader);
@@ -113,30 +111,15 @@ public class BlocksDefinitionReader {
                                     }
                                 } else if (value.startsWith("image")) {
                                     // case image
+                                    // keep the path, the image is made when the block size is known
                                     String arg = Utils.extract(value, "image(", ")");
-                                    InputStream inputStream = null;
-                                    try {
-                                        inputStream = ClassLoader.getSystemClassLoader().getResourceAsStream(arg);
-                                        BufferedImage image = ImageIO.read(inputStream);
-                                        // case there is - (fill-k) map it to k
-                                        if (dividerIndex != -1) {
-                                            fillImages.put(Integer.parseInt(
-                                                    key.substring(dividerIndex + 1)), image);
-                                            // case no - (fill) map it to 1
-                                        } else {
-                                            fillImages.put(1, image);
-                                        }
-                                    } catch (IOException e) {
-                                        throw new RuntimeException("failed to load image");
-
-                                    } finally {
-                                        if (inputStream != null) {
-                                            try {
-                                                inputStream.close();
-                                            } catch (IOException e) {
-                                                throw new RuntimeException("failed to load image");
-                                            }
-                                        }
+                                    // case there is - (fill-k) map it to k
+                                    if (dividerIndex != -1) {
+                                        fillImages.put(Integer.parseInt(
+                                                key.substring(dividerIndex + 1)), arg);
+                                        // case no - (fill) map it to 1
+                                    } else {
+                                        fillImages.put(1, arg);
                                     }
                                 } else {
                                     // case nor color or image
@@ -145,9 +128,14 @@ public class BlocksDefinitionReader {
                             }
                         }
                     }
+                    // images decoded only when a block first draws them, cropped to the block
+                    Map<Integer, LazyImage> lazyImages = new HashMap<>();
+                    for (Map.Entry<Integer, String> fillImage : fillImages.entrySet()) {
+                        lazyImages.put(fillImage.getKey(), LazyImage.of(fillImage.getValue(), width, height));
+                    }
                     // add block creator according to properties
                     blockCreators.put(properties.remove("symbol"), new ColorsImagesBlockCreator(width, height,
-                            hitPoints, strokeColor, fillColors, fillImages));
+                            hitPoints, strokeColor, fillColors, lazyImages));
 
                     // case spacers definition
                 } else if (line.startsWith("sdef")) {
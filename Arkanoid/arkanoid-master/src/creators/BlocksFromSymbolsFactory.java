@@ -2,11 +2,15 @@ package creators;
 
 import sprites.blocks.BaseBlock;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * BlocksFromSymbolsFactory class.
+ * <p>
+ * Never changed after it is made, so one factory can be shared by many
+ * levels (see BlockDefinitionsCache).
  */
 public class BlocksFromSymbolsFactory {
     private Map<String, Integer> spacerWidths;
@@ -19,8 +23,8 @@ public class BlocksFromSymbolsFactory {
      * @param newBlockCreators block creators map.
      */
     BlocksFromSymbolsFactory(Map<String, Integer> newSpacerWidths, Map<String, BlockCreator> newBlockCreators) {
-        this.spacerWidths = new HashMap<>(newSpacerWidths);
-        this.blockCreators = new HashMap<>(newBlockCreators);
+        this.spacerWidths = Collections.unmodifiableMap(new HashMap<>(newSpacerWidths));
+        this.blockCreators = Collections.unmodifiableMap(new HashMap<>(newBlockCreators));
     }
 
     /**
@@ -64,4 +68,14 @@ public class BlocksFromSymbolsFactory {
     public BaseBlock getBlock(String symbol, int xPos, int yPos) {
         return this.blockCreators.get(symbol).create(xPos, yPos);
     }
+
+    /**
+     * Gives the block creator according to symbol.
+     *
+     * @param symbol the symbol.
+     * @return the block creator according to symbol.
+     */
+    public BlockCreator getCreator(String symbol) {
+        return this.blockCreators.get(symbol);
+    }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package creators;
 
+import general.LazyImage;
 import sprites.blocks.BaseBlock;
 import sprites.blocks.ColorsImagesBlock;
 
 import java.awt.Color;
-import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,7 +16,7 @@ import java.util.Map;
 public class ColorsImagesBlockCreator extends BaseBlockCreator {
     private Color strokeColor;
     private Map<Integer, Color> fillColors;
-    private Map<Integer, BufferedImage> fillImages;
+    private Map<Integer, LazyImage> fillImages;
 
     /**
      * Constructs a ColorsImagesBlockCreator.
@@ -27,11 +29,22 @@ public class ColorsImagesBlockCreator extends BaseBlockCreator {
      * @param fillImages the fill resources of the block.
      */
     public ColorsImagesBlockCreator(int width, int height, int hitPoints, Color strokeColor,
-                                    Map<Integer, Color> fillColors, Map<Integer, BufferedImage> fillImages) {
+                                    Map<Integer, Color> fillColors, Map<Integer, LazyImage> fillImages) {
         super(width, height, hitPoints);
         this.strokeColor = strokeColor;
-        this.fillColors = new HashMap<>(fillColors);
-        this.fillImages = new HashMap<>(fillImages);
+        // shared by all the created blocks, so never changed
+        this.fillColors = Collections.unmodifiableMap(new HashMap<>(fillColors));
+        this.fillImages = Collections.unmodifiableMap(new HashMap<>(fillImages));
+    }
+
+    /**
+     * Gives the fill images of the blocks.
+     *
+     * @return the fill images.
+     */
+    @Override
+    public Collection<LazyImage> getImages() {
+        return this.fillImages.values();
     }
 
     /**
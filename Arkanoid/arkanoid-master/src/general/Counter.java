@@ -1,16 +1,22 @@
 package general;
 
+import listeners.CounterListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Counter class.
  */
 public class Counter {
     private int value;
+    private List<CounterListener> listeners;
 
     /**
      * Constructs a counter.
      */
     public Counter() {
-        this.value = 0;
+        this(0);
     }
 
     /**
@@ -20,6 +26,7 @@ public class Counter {
      */
     public Counter(int value) {
         this.value = value;
+        this.listeners = new ArrayList<>();
     }
 
     /**
@@ -29,6 +36,7 @@ public class Counter {
      */
     public void increase(int val) {
         this.value += val;
+        this.notifyChanged(val);
     }
 
     /**
@@ -38,6 +46,7 @@ public class Counter {
      */
     public void decrease(int val) {
         this.value -= val;
+        this.notifyChanged(val);
     }
 
     /**
@@ -48,4 +57,36 @@ public class Counter {
     public int getValue() {
         return this.value;
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds a listener that is notified whenever the value changes.
+     *
+     * @param listener the listener to add.
+     */
+    public void addCounterListener(CounterListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Removes a counter listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeCounterListener(CounterListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Notifies the listeners if the value changed.
+     *
+     * @param val the value that was added or subtracted.
+     */
+    private void notifyChanged(int val) {
+        if (val == 0) {
+            return;
+        }
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).counterChanged(this);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package general;
 
+import collisions.ClosestHit;
 import collisions.Collidable;
+import collisions.CollisionGrid;
 import collisions.CollisionInfo;
 import geometry.Line;
 import geometry.Point;
@@ -8,7 +10,9 @@ import geometry.Rectangle;
 import sprites.Paddle;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * GameEnvironment class.
@@ -19,7 +23,9 @@ public class GameEnvironment {
     private int width;
     private int height;
     private int border;
-    private List<Collidable> collidables;
+    // in the order of adding, removing is O(1)
+    private Set<Collidable> collidables;
+    private CollisionGrid grid;
 
     /**
      * Constructs a GameLevel environment by given width, height and border width.
@@ -30,10 +36,25 @@ public class GameEnvironment {
      * @param border the border width of the GameLevel window.
      */
     public GameEnvironment(int width, int height, int border) {
+        this(width, height, border, Utils.GRID_CELL_WIDTH, Utils.GRID_CELL_HEIGHT);
+    }
+
+    /**
+     * Constructs a GameLevel environment by given sizes and the cell sizes
+     * of the collision grid (usually the blocks width and the row height).
+     *
+     * @param width      the width of the GameLevel window.
+     * @param height     the height of the GameLevel window.
+     * @param border     the border width of the GameLevel window.
+     * @param cellWidth  the width of a collision grid cell.
+     * @param cellHeight the height of a collision grid cell.
+     */
+    public GameEnvironment(int width, int height, int border, int cellWidth, int cellHeight) {
         this.width = width;
         this.height = height;
         this.border = border;
-        this.collidables = new ArrayList<>();
+        this.collidables = new LinkedHashSet<>();
+        this.grid = new CollisionGrid(width, height, cellWidth, cellHeight);
     }
 
     /**
@@ -70,15 +91,36 @@ public class GameEnvironment {
      */
     public void addCollidable(Collidable collidable) {
         this.collidables.add(collidable);
+        this.grid.add(collidable);
     }
 
     /**
-     * Adds the given collidable to the environment.
+     * Removes the given collidable from the environment.
      *
      * @param collidable a collidable object.
      */
     public void removeCollidable(Collidable collidable) {
         this.collidables.remove(collidable);
+        this.grid.remove(collidable);
+    }
+
+    /**
+     * Tells if the given collidable is in the environment.
+     *
+     * @param collidable a collidable object.
+     * @return true if the collidable is in the environment, else false.
+     */
+    public boolean contains(Collidable collidable) {
+        return this.grid.contains(collidable);
+    }
+
+    /**
+     * Updates the place of the given collidable after it moved.
+     *
+     * @param collidable the moved collidable.
+     */
+    public void updateCollidable(Collidable collidable) {
+        this.grid.update(collidable);
     }
 
     /**
@@ -87,10 +129,7 @@ public class GameEnvironment {
      * @return the rectangle ot the paddle.
      */
     public Rectangle getPaddleRectangle() {
-
-        List<Collidable> copy = new ArrayList<>(this.collidables);
-
-        for (Collidable collidable : copy) {
+        for (Collidable collidable : this.collidables) {
             // if collidable is Paddle return it
             if (collidable instanceof Paddle) {
                 return collidable.getCollisionRectangle();
@@ -149,32 +188,86 @@ public class GameEnvironment {
      * @return CollisionInfo of collision if collides, else return null.
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
-        Point closestOnCollidable;
-        Rectangle collisionRectangle;
-
+        ClosestHit hit = new ClosestHit();
         // case no collision return null
-        if (!this.isCollide(trajectory)) {
+        if (!this.closestHit(trajectory, hit)) {
             return null;
         }
+        // create collisionInfo with collision point and collided collidable
+        return new CollisionInfo(hit.getPoint(), hit.getCollidable());
+    }
 
-        // list of the closest collide points on all the collided collidables
-        List<Point> closestCollidePoints = new ArrayList<>();
-        List<Collidable> copy = new ArrayList<>(this.collidables);
-        for (Collidable collidable : copy) {
-            // find closest on collidable by the collision rectangle
-            collisionRectangle = collidable.getCollisionRectangle();
-            closestOnCollidable = trajectory.closestIntersectionToStartOfLine(
-                    collisionRectangle);
-            // add the closest collide point to the list
-            if (closestOnCollidable != null) {
-                closestCollidePoints.add(closestOnCollidable);
+    /**
+     * Finds the closest hit along the trajectory in a single pass over the
+     * collidables in the cells that the trajectory passes.
+     * The hit point and its collidable are tracked together.
+     *
+     * @param trajectory a line to check if collides with collidable.
+     * @param hit        filled with the closest hit (reset before the search).
+     * @return true if a hit was found, else false.
+     */
+    public boolean closestHit(Line trajectory, ClosestHit hit) {
+        double xPos = trajectory.start().getX();
+        double yPos = trajectory.start().getY();
+        return this.closestHit(xPos, yPos, trajectory.end().getX() - xPos, trajectory.end().getY() - yPos, hit);
+    }
+
+    /**
+     * Finds the closest hit of the ray from (xPos, yPos) moving by (dx, dy).
+     *
+     * @param xPos the x of the start of the ray.
+     * @param yPos the y of the start of the ray.
+     * @param dx   the movement on the x axis.
+     * @param dy   the movement on the y axis.
+     * @param hit  filled with the closest hit (reset before the search).
+     * @return true if a hit was found, else false.
+     */
+    public boolean closestHit(double xPos, double yPos, double dx, double dy, ClosestHit hit) {
+        return this.closestHit(xPos, yPos, dx, dy, 0, hit);
+    }
+
+    /**
+     * Finds the closest hit of a circle of the given radius whose center
+     * moves from (xPos, yPos) by (dx, dy).
+     * Walks the grid cells the swept circle passes directly and tests the
+     * collidables with the swept test of their rectangles, so no objects
+     * are created. A collidable that lies in several cells may be tested
+     * more than once, which doesn't change the closest hit.
+     *
+     * @param xPos   the x of the center at the start.
+     * @param yPos   the y of the center at the start.
+     * @param dx     the movement on the x axis.
+     * @param dy     the movement on the y axis.
+     * @param radius the radius of the circle (0 for a point).
+     * @param hit    filled with the closest hit (reset before the search).
+     * @return true if a hit was found, else false.
+     */
+    public boolean closestHit(double xPos, double yPos, double dx, double dy, double radius, ClosestHit hit) {
+        hit.reset();
+        double endX = xPos + dx;
+        double endY = yPos + dy;
+        int colFrom = this.grid.columnOf(Math.min(xPos, endX) - radius);
+        int colTo = this.grid.columnOf(Math.max(xPos, endX) + radius);
+        int rowFrom = this.grid.rowOf(Math.min(yPos, endY) - radius);
+        int rowTo = this.grid.rowOf(Math.max(yPos, endY) + radius);
+
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (int col = colFrom; col <= colTo; col++) {
+                // skip cells of the box that the swept circle doesn't cross
+                if (!this.grid.isSegmentInCell(xPos, yPos, endX, endY, radius, col, row)) {
+                    continue;
+                }
+                List<Collidable> cell = this.grid.cell(col, row);
+                for (int i = 0; i < cell.size(); i++) {
+                    Collidable collidable = cell.get(i);
+                    Rectangle rectangle = collidable.getCollisionRectangle();
+                    if (rectangle.sweepCircle(xPos, yPos, dx, dy, radius, hit.ray())) {
+                        hit.offer(hit.ray(), collidable, this.grid.orderOf(collidable));
+                    }
+                }
             }
         }
-
-        // create the closest collision point
-        Point closest = trajectory.start().closestPoint(closestCollidePoints);
-        // create collisionInfo with collision point and collided collidable
-        return new CollisionInfo(closest, this.collidableByPoint(closest));
+        return hit.isFound();
     }
 
     /**
@@ -184,20 +277,7 @@ public class GameEnvironment {
      * @return true if finds intersection point, else false.
      */
     public Boolean isCollide(Line trajectory) {
-        Rectangle collisionRectangle;
-
-
-        List<Collidable> copy = new ArrayList<>(this.collidables);
-        // passes over collidables and check if intersect with someone
-        for (Collidable collidable : copy) {
-            collisionRectangle = collidable.getCollisionRectangle();
-            // case at least one intersection point with collidable return true
-            if (collisionRectangle.intersectionPoints(trajectory).size() > 0) {
-                return true;
-            }
-        }
-        // case no collision found return false
-        return false;
+        return this.closestHit(trajectory, new ClosestHit());
     }
 
     /**
@@ -219,12 +299,12 @@ public class GameEnvironment {
     }
 
     /**
-     * Gets the collidables list.
+     * Gets the collidables list, a copy in the order of adding.
      *
      * @return collidables list.
      */
     public List<Collidable> getCollidables() {
-        return this.collidables;
+        return new ArrayList<>(this.collidables);
     }
 
     /**
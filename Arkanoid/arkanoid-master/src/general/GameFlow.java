@@ -7,13 +7,16 @@ import animation.AnimationRunner;
 import animation.EndScreen;
 import biuoop.DialogManager;
 import biuoop.KeyboardSensor;
-import levels.LevelFromReader;
 import levels.LevelInformation;
+import levels.LevelSource;
+import levels.ListLevelSource;
+import levels.PrefetchingLevelSource;
 import scores.HighScoresTable;
+import scores.Leaderboard;
 import scores.ScoreInfo;
 
-import java.io.File;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Game flow class.
@@ -24,6 +27,10 @@ public class GameFlow {
     private AnimationRunner runner;
     private int score;
     private int lives;
+    private boolean dirtyRepaint;
+    private String levelSetKey;
+    private Random random;
+    private boolean highScores;
 
     /**
      * Constructs a GameFlow.
@@ -38,6 +45,66 @@ public class GameFlow {
         this.dialogManager = dialogManager;
         this.score = 0;
         this.lives = Utils.LIVES;
+        this.levelSetKey = Leaderboard.DEFAULT_KEY;
+        this.random = new Random();
+        this.highScores = true;
+    }
+
+    /**
+     * Seeds the random numbers of the game, so a game with the same seed
+     * and the same keys plays the same.
+     *
+     * @param seed the seed.
+     */
+    public void setSeed(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Sets if the score is ranked in the high scores at the end, off for
+     * replays.
+     *
+     * @param newHighScores true to manage the high scores at the end.
+     */
+    public void setHighScores(boolean newHighScores) {
+        this.highScores = newHighScores;
+    }
+
+    /**
+     * Sets the key of the played level set, its high scores are the ones
+     * the score is ranked in.
+     *
+     * @param newLevelSetKey the key of the level set.
+     */
+    public void setLevelSetKey(String newLevelSetKey) {
+        this.levelSetKey = newLevelSetKey;
+    }
+
+    /**
+     * Sets if the levels are repainted in the dirty-rectangle mode.
+     *
+     * @param newDirtyRepaint true for the dirty-rectangle mode.
+     */
+    public void setDirtyRepaint(boolean newDirtyRepaint) {
+        this.dirtyRepaint = newDirtyRepaint;
+    }
+
+    /**
+     * Gives the score of the game.
+     *
+     * @return the score.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Gives the lives left in the game.
+     *
+     * @return the lives.
+     */
+    public int getLives() {
+        return this.lives;
     }
 
     /**
@@ -45,12 +112,27 @@ public class GameFlow {
      *
      * @param levels the levels.
      */
-    public void runLevels(List<LevelFromReader> levels) {
-        for (LevelInformation levelInfo : levels) {
+    public void runLevels(List<? extends LevelInformation> levels) {
+        this.runLevels(new ListLevelSource(levels));
+    }
+
+    /**
+     * Runs game levels, every level is loaded from the source only when it
+     * is reached. The next level is prepared in the background while the
+     * current one is played.
+     *
+     * @param source the source of the levels.
+     */
+    public void runLevels(LevelSource source) {
+        LevelSource levels = new PrefetchingLevelSource(source);
+        for (int i = 0; i < levels.size(); i++) {
+            LevelInformation levelInfo = levels.get(i);
             // adds 100 to score each level
             GameLevel level = new GameLevel(levelInfo, this.keyboardSensor,
                     this.runner, this.score, this.lives);
+            level.setRandom(this.random);
             level.initialize();
+            level.setDirtyRepaint(this.dirtyRepaint);
 
             // level has more blocks and player has more lives
             while (level.getNumBlocks() > 0 && this.lives > 0) {
@@ -73,23 +155,28 @@ public class GameFlow {
         this.runner.run(new KeyPressStoppableAnimation(this.keyboardSensor, "space",
                 new EndScreen(this.lives, this.score)));
 
-        this.manageHighScore();
+        if (this.highScores) {
+            this.manageHighScore();
+        }
     }
 
     /**
      * Manages high scores.
      */
     private void manageHighScore() {
-        HighScoresTable scoresTable = Utils.scoresTable();
+        HighScoresTable scoresTable = Utils.scoresTable(this.levelSetKey);
         int curRank = scoresTable.getRank(this.score);
 
-        if (curRank < scoresTable.size()) {
+        // only the shown top scores ask for a name, the table keeps more
+        if (curRank <= Utils.SCORES_TABLE_SIZE) {
             String name = dialogManager.showQuestionDialog("Name", "What is your name?", "");
-            scoresTable.add(new ScoreInfo(name, this.score));
-            scoresTable.save(new File(Utils.SCORESTABLE_PATH));
+            // saved in the background
+            Utils.scoresStore().add(this.levelSetKey, new ScoreInfo(name, this.score));
+        } else {
+            curRank = -1;
         }
 
         this.runner.run(new KeyPressStoppableAnimation(keyboardSensor, "space",
-                new HighScoresAnimation(scoresTable, curRank)));
+                new HighScoresAnimation(keyboardSensor, scoresTable, curRank)));
     }
 }
@@ -0,0 +1,284 @@
+package general;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * ImageCache class.
+ * <p>
+ * Keeps decoded images by their resource path, so every image is read
+ * and decoded once per process. The cache is bounded by the bytes of the
+ * decoded rasters, and when it is full the least recently used images
+ * are evicted (holders of an evicted image keep using it, only the next
+ * load decodes it again).
+ * Images can also be taken in a display-compatible format, cropped to
+ * the size they are drawn at, so drawing them each frame is a plain blit
+ * instead of a per-pixel format conversion.
+ * Images are decoded and converted outside the lock of the cache, so a
+ * level prefetched in the background never blocks the game thread's
+ * images. An image being loaded is kept as an in-flight task, and another
+ * thread that wants the same image waits for it instead of loading it
+ * again.
+ */
+public class ImageCache {
+    private static final ImageCache SHARED = new ImageCache(Utils.IMAGE_CACHE_BYTES);
+    private long maxBytes;
+    private long bytes;
+    private LinkedHashMap<String, BufferedImage> images;
+    private Map<String, FutureTask<BufferedImage>> loading;
+
+    /**
+     * Constructs an empty ImageCache by given size bound.
+     *
+     * @param maxBytes the most bytes of decoded images to keep.
+     */
+    public ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.bytes = 0;
+        // access order, the eldest entry is the least recently used
+        this.images = new LinkedHashMap<>(16, 0.75f, true);
+        this.loading = new HashMap<>();
+    }
+
+    /**
+     * Gives the cache shared by the whole game.
+     *
+     * @return the shared cache.
+     */
+    public static ImageCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gives the image of the given resource path, decoding it on first use.
+     *
+     * @param path the resource path of the image.
+     * @return the decoded image.
+     */
+    public BufferedImage get(String path) {
+        return this.fetch(path, () -> load(path));
+    }
+
+    /**
+     * Gives the image of the given resource path converted to the format
+     * of the display, decoding and converting it on first use.
+     *
+     * @param path the resource path of the image.
+     * @return the display-compatible image.
+     */
+    public BufferedImage getCompatible(String path) {
+        return this.getCompatible(path, 0, 0);
+    }
+
+    /**
+     * Gives the image of the given resource path converted to the format
+     * of the display and cropped to the given size (from its top left),
+     * converting it on first use. Only the converted image is kept, the
+     * decoded source is dropped unless it was taken by get too.
+     *
+     * @param path   the resource path of the image.
+     * @param width  the width to crop to, 0 for the whole width.
+     * @param height the height to crop to, 0 for the whole height.
+     * @return the display-compatible image.
+     */
+    public BufferedImage getCompatible(String path, int width, int height) {
+        return this.fetch(path + "@" + width + "x" + height, () -> {
+            BufferedImage source;
+            synchronized (this) {
+                source = this.images.get(path);
+            }
+            return toCompatible(source != null ? source : load(path), width, height);
+        });
+    }
+
+    /**
+     * Gives the image of the given key, loading it outside the lock if it is
+     * not in the cache, or waiting for the thread that loads it already.
+     *
+     * @param key    the key of the image.
+     * @param loader loads the image.
+     * @return the image.
+     */
+    private BufferedImage fetch(String key, Callable<BufferedImage> loader) {
+        FutureTask<BufferedImage> task;
+        boolean loads = false;
+        synchronized (this) {
+            BufferedImage image = this.images.get(key);
+            if (image != null) {
+                return image;
+            }
+            task = this.loading.get(key);
+            if (task == null) {
+                task = new FutureTask<>(loader);
+                this.loading.put(key, task);
+                loads = true;
+            }
+        }
+
+        if (!loads) {
+            return await(task, key);
+        }
+        BufferedImage image = null;
+        try {
+            task.run();
+            image = await(task, key);
+        } finally {
+            synchronized (this) {
+                this.loading.remove(key);
+                if (image != null) {
+                    this.images.put(key, image);
+                    this.bytes += sizeOf(image);
+                    this.evict();
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Waits for an image task to end.
+     *
+     * @param task the task.
+     * @param key  the key of the image.
+     * @return the image.
+     */
+    private static BufferedImage await(FutureTask<BufferedImage> task, String key) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("failed to load image " + key, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted loading image " + key, e);
+        }
+    }
+
+    /**
+     * Gives the bytes of the decoded images in the cache.
+     *
+     * @return the bytes in the cache.
+     */
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Gives the number of images in the cache.
+     *
+     * @return the number of images.
+     */
+    public synchronized int size() {
+        return this.images.size();
+    }
+
+    /**
+     * Forgets all the images.
+     */
+    public synchronized void clear() {
+        this.images.clear();
+        this.bytes = 0;
+    }
+
+    /**
+     * Evicts least recently used images while over the bound, always
+     * keeping the most recent one.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, BufferedImage>> eldest = this.images.entrySet().iterator();
+        while (this.bytes > this.maxBytes && this.images.size() > 1) {
+            this.bytes -= sizeOf(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Reads and decodes the image of the given resource path.
+     *
+     * @param path the resource path of the image.
+     * @return the decoded image.
+     */
+    private static BufferedImage load(String path) {
+        try (InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path)) {
+            if (is == null) {
+                throw new RuntimeException("failed to find image " + path);
+            }
+            BufferedImage image = ImageIO.read(is);
+            if (image == null) {
+                throw new RuntimeException("failed to decode image " + path);
+            }
+            return image;
+        } catch (IOException e) {
+            throw new RuntimeException("failed to load image " + path);
+        }
+    }
+
+    /**
+     * Creates an empty image in the format of the default screen (or a fast
+     * integer format when headless).
+     *
+     * @param width        the width of the image.
+     * @param height       the height of the image.
+     * @param transparency the transparency of the image (of Transparency).
+     * @return the new image.
+     */
+    public static BufferedImage createCompatible(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB
+                    : BufferedImage.TYPE_INT_ARGB_PRE;
+            return new BufferedImage(width, height, type);
+        }
+        GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        return configuration.createCompatibleImage(width, height, transparency);
+    }
+
+    /**
+     * Copies the top left part of the image to a new image in the format
+     * of the default screen (or a fast integer format when headless).
+     *
+     * @param source the source image.
+     * @param width  the width to crop to, 0 for the whole width.
+     * @param height the height to crop to, 0 for the whole height.
+     * @return the compatible image.
+     */
+    private static BufferedImage toCompatible(BufferedImage source, int width, int height) {
+        int newWidth = width > 0 ? Math.min(width, source.getWidth()) : source.getWidth();
+        int newHeight = height > 0 ? Math.min(height, source.getHeight()) : source.getHeight();
+        BufferedImage image = createCompatible(newWidth, newHeight, source.getColorModel().getTransparency());
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.drawImage(source, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Gives the bytes of the raster of the image.
+     *
+     * @param image the image.
+     * @return the bytes of the raster.
+     */
+    private static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+}
@@ -0,0 +1,100 @@
+package general;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LazyImage class.
+ * <p>
+ * A handle of an image resource that is decoded only when first used.
+ * Handles are interned by resource name and size, so all the block
+ * definitions that use the same image at the same size share one handle
+ * and one raster. The image is kept in the format of the display,
+ * cropped to the size it is drawn at.
+ * The raster is owned by the ImageCache, the handle only keeps a weak
+ * reference to it, so the byte bound of the cache holds: once the cache
+ * evicts an image it can be collected, and the next get loads it again.
+ */
+public class LazyImage {
+    private static final Map<String, LazyImage> HANDLES = new HashMap<>();
+    private String path;
+    private int width;
+    private int height;
+    private volatile WeakReference<BufferedImage> image;
+
+    /**
+     * Constructs a LazyImage of the given resource path and size.
+     *
+     * @param path   the resource path of the image.
+     * @param width  the width to crop to, 0 for the whole width.
+     * @param height the height to crop to, 0 for the whole height.
+     */
+    private LazyImage(String path, int width, int height) {
+        this.path = path;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Gives the handle of the given resource path, the same one for every call.
+     *
+     * @param path the resource path of the image.
+     * @return the handle of the image.
+     */
+    public static LazyImage of(String path) {
+        return of(path, 0, 0);
+    }
+
+    /**
+     * Gives the handle of the given resource path cropped to the given size,
+     * the same one for every call.
+     *
+     * @param path   the resource path of the image.
+     * @param width  the width to crop to, 0 for the whole width.
+     * @param height the height to crop to, 0 for the whole height.
+     * @return the handle of the image.
+     */
+    public static LazyImage of(String path, int width, int height) {
+        String key = path + "@" + width + "x" + height;
+        synchronized (HANDLES) {
+            return HANDLES.computeIfAbsent(key, k -> new LazyImage(path, width, height));
+        }
+    }
+
+    /**
+     * Gives the resource path of the image.
+     *
+     * @return the resource path.
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Tells if the image was decoded already.
+     *
+     * @return true if decoded, else false.
+     */
+    public boolean isLoaded() {
+        WeakReference<BufferedImage> reference = this.image;
+        return reference != null && reference.get() != null;
+    }
+
+    /**
+     * Gives the image, taking it from the image cache (that decodes and
+     * converts it) on first call or after it was evicted and collected.
+     *
+     * @return the display-compatible image.
+     */
+    public BufferedImage get() {
+        WeakReference<BufferedImage> reference = this.image;
+        BufferedImage loaded = reference == null ? null : reference.get();
+        if (loaded == null) {
+            loaded = ImageCache.shared().getCompatible(this.path, this.width, this.height);
+            this.image = new WeakReference<>(loaded);
+        }
+        return loaded;
+    }
+}
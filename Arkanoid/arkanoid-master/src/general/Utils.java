@@ -3,15 +3,14 @@ package general;
 import geometry.Point;
 import geometry.Velocity;
 import levels.LevelSets;
+import scores.HighScoresStore;
 import scores.HighScoresTable;
 import sprites.ColorBackground;
 import sprites.ImageBackground;
 import sprites.Sprite;
 
-import javax.imageio.ImageIO;
 import java.awt.Color;
 import java.awt.Image;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -43,15 +42,49 @@ public class Utils {
     /**
      * The Lives.
      */
-    static final int LIVES = 7;
+    public static final int LIVES = 7;
     /**
      * The constant FRAMES_PER_SECOND.
      */
     public static final int FRAMES_PER_SECOND = 60;
     /**
-     * The constant SCORES_TABLE_SIZE.
+     * The constant PHYSICS_STEPS_PER_SECOND, the rate of fixed physics steps.
+     */
+    public static final int PHYSICS_STEPS_PER_SECOND = 240;
+    /**
+     * The constant MAX_STEPS_PER_FRAME, the most physics steps to catch up in one frame.
+     */
+    public static final int MAX_STEPS_PER_FRAME = 24;
+    /**
+     * The constant BALL_SYSTEM_THRESHOLD, from this number of balls a level
+     * keeps its balls in one BallSystem instead of a Ball sprite each.
+     */
+    public static final int BALL_SYSTEM_THRESHOLD = 64;
+    /**
+     * The constant SCORES_TABLE_SIZE, the top scores of a level set that
+     * are asked for a name and shown first.
      */
     public static final int SCORES_TABLE_SIZE = 5;
+    /**
+     * The constant SCORES_PAGE_SIZE, the scores shown on a page of the high scores.
+     */
+    public static final int SCORES_PAGE_SIZE = 5;
+    /**
+     * The constant SCORES_RETENTION, the default most scores kept for every level set.
+     */
+    public static final int SCORES_RETENTION = 1000;
+    /**
+     * The constant GRID_CELL_WIDTH, the default width of a collision grid cell.
+     */
+    public static final int GRID_CELL_WIDTH = 50;
+    /**
+     * The constant GRID_CELL_HEIGHT, the default height of a collision grid cell.
+     */
+    public static final int GRID_CELL_HEIGHT = 25;
+    /**
+     * The constant IMAGE_CACHE_BYTES, the bound of the decoded images cache.
+     */
+    public static final long IMAGE_CACHE_BYTES = 64L * 1024 * 1024;
     /**
      * The constant PADDLE_HEIGHT.
      */
@@ -71,11 +104,16 @@ public class Utils {
     /**
      * The Scorestable path.
      */
-    static final String SCORESTABLE_PATH = "highscores.ser";
+    static final String SCORESTABLE_PATH = "highscores.dat";
+    /**
+     * The path of the scores table of the old, serialized, format.
+     */
+    static final String LEGACY_SCORESTABLE_PATH = "highscores.ser";
     private static final String LEVEL_SETS_PATH = "level_sets.txt";
     private static final String WIN_IMAGE_PATH = "win.png";
     private static final String LOSE_IMAGE_PATH = "lose.jpg";
     private static final String PAUSE_IMAGE_PATH = "pause.png";
+    private static HighScoresStore scoresStore;
 
     /**
      * Gives random borders color.
@@ -83,13 +121,22 @@ public class Utils {
      * @return random borders color.
      */
     public static Color getRandomStdBorderColor() {
+        return getRandomStdBorderColor(new Random());
+    }
+
+    /**
+     * Gives random borders color, drawn from the given random numbers.
+     *
+     * @param random the random numbers, like the seeded ones of a game.
+     * @return random borders color.
+     */
+    public static Color getRandomStdBorderColor(Random random) {
         List<Color> bordersColors = new ArrayList<>();
         bordersColors.add(new Color(153, 76, 0));
         bordersColors.add(new Color(76, 0, 153));
         bordersColors.add(new Color(153, 0, 76));
         bordersColors.add(new Color(0, 102, 102));
         bordersColors.add(new Color(102, 102, 0));
-        Random random = new Random();
         return bordersColors.get(random.nextInt(bordersColors.size()));
     }
 
@@ -99,14 +146,7 @@ public class Utils {
      * @return the winning image.
      */
     public static Image winImage() {
-        BufferedImage image;
-        try {
-            InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(WIN_IMAGE_PATH);
-            image = ImageIO.read(is);
-        } catch (IOException e) {
-            throw new RuntimeException("failed loading winning image");
-        }
-        return image;
+        return ImageCache.shared().getCompatible(WIN_IMAGE_PATH);
     }
 
     /**
@@ -115,14 +155,7 @@ public class Utils {
      * @return the winning image.
      */
     public static Image loseImage() {
-        BufferedImage image;
-        try {
-            InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(LOSE_IMAGE_PATH);
-            image = ImageIO.read(is);
-        } catch (IOException e) {
-            throw new RuntimeException("failed loading losing image");
-        }
-        return image;
+        return ImageCache.shared().getCompatible(LOSE_IMAGE_PATH);
     }
 
     /**
@@ -131,23 +164,30 @@ public class Utils {
      * @return the winning image.
      */
     public static Image pauseImage() {
-        BufferedImage image;
-        try {
-            InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(PAUSE_IMAGE_PATH);
-            image = ImageIO.read(is);
-        } catch (IOException e) {
-            throw new RuntimeException("failed loading pause image");
+        return ImageCache.shared().getCompatible(PAUSE_IMAGE_PATH);
+    }
+
+    /**
+     * Gives the scores store of the game, loading it on the first call.
+     *
+     * @return the scores store.
+     */
+    public static synchronized HighScoresStore scoresStore() {
+        if (scoresStore == null) {
+            scoresStore = HighScoresStore.open(new File(SCORESTABLE_PATH), new File(LEGACY_SCORESTABLE_PATH),
+                    SCORES_RETENTION);
         }
-        return image;
+        return scoresStore;
     }
 
     /**
-     * Gives the scores table.
+     * Gives the scores table of a level set, served from memory.
      *
+     * @param levelSetKey the key of the level set.
      * @return the scores table.
      */
-    public static HighScoresTable scoresTable() {
-        return HighScoresTable.loadFromFile(new File(SCORESTABLE_PATH));
+    public static HighScoresTable scoresTable(String levelSetKey) {
+        return scoresStore().getTable(levelSetKey);
     }
 
     /**
@@ -173,7 +213,18 @@ public class Utils {
      * @return a random velocity.
      */
     public static Velocity genRandVelocity(double speed) {
-        Random rand = new Random();
+        return genRandVelocity(speed, new Random());
+    }
+
+    /**
+     * Generates a fine random velocity with given speed, drawn from the
+     * given random numbers.
+     *
+     * @param speed to determine the velocity with.
+     * @param rand  the random numbers, like the seeded ones of a game.
+     * @return a random velocity.
+     */
+    public static Velocity genRandVelocity(double speed, Random rand) {
         // generate an angle between 300 and 60 (= 420)
         int num = rand.nextInt(120);
         int randAngle = 300 + num;
@@ -218,22 +269,8 @@ public class Utils {
             // case image
         } else if ((str.startsWith("image(")) && (str.endsWith(")"))) {
             String arg = extract(str, "image(", ")");
-            InputStream inputStream = null;
-            try {
-                inputStream = ClassLoader.getSystemClassLoader().getResourceAsStream(arg);
-                BufferedImage image = ImageIO.read(inputStream);
-                return new ImageBackground(image);
-            } catch (IOException e) {
-                throw new RuntimeException("failed to load image");
-            } finally {
-                if (inputStream != null) {
-                    try {
-                        inputStream.close();
-                    } catch (IOException e) {
-                        throw new RuntimeException("failed to load image");
-                    }
-                }
-            }
+            // converted for the display and cropped to the window
+            return new ImageBackground(ImageCache.shared().getCompatible(arg, WINDOW_WIDTH, WINDOW_HEIGHT));
         }
         // no use
         return new ColorBackground();
@@ -2,10 +2,10 @@ package geometry;
 
 import animation.GameLevel;
 import biuoop.DrawSurface;
-import collisions.CollisionInfo;
+import collisions.ClosestHit;
 import general.GameEnvironment;
 import general.Utils;
-import sprites.Sprite;
+import sprites.InterpolatedSprite;
 
 import java.awt.Color;
 
@@ -14,11 +14,17 @@ import java.awt.Color;
  *
  * @author Ori.
  */
-public class Ball implements Sprite {
+public class Ball implements InterpolatedSprite {
+    private static final int MAX_HITS_PER_STEP = 8;
+    private static final double SKIN = 0.01;
     private Color color;
     private Circle circle;
     private Velocity velocity;
     private GameEnvironment environment;
+    private ClosestHit hit;
+    private double previousX;
+    private double previousY;
+    private boolean removed;
 
     /**
      * Constructs a ball by given center, radius and color.
@@ -28,8 +34,11 @@ public class Ball implements Sprite {
      * @param color  the color of the ball.
      */
     public Ball(Point center, int radius, Color color) {
-        this.circle = new Circle(center, radius);
+        // own copy of the center, it is moved in place
+        this.circle = new Circle(new Point(center.getX(), center.getY()), radius);
         this.color = color;
+        this.hit = new ClosestHit();
+        this.keepPosition();
     }
 
     /**
@@ -40,6 +49,8 @@ public class Ball implements Sprite {
     public Ball(Circle circle) {
         this.color = Color.WHITE;
         this.circle = circle;
+        this.hit = new ClosestHit();
+        this.keepPosition();
     }
 
     /**
@@ -64,9 +75,37 @@ public class Ball implements Sprite {
      */
     public Ball(Velocity velocity, GameEnvironment environment) {
         this.color = Color.WHITE;
-        this.circle = new Circle(Utils.STARTING_POINT, Utils.BALL_SIZE);
+        // own copy of the starting point, it is moved in place
+        this.circle = new Circle(new Point(Utils.STARTING_POINT.getX(), Utils.STARTING_POINT.getY()),
+                Utils.BALL_SIZE);
         this.velocity = new Velocity(velocity);
         this.environment = environment;
+        this.hit = new ClosestHit();
+        this.keepPosition();
+    }
+
+    /**
+     * Gives the center of the ball.
+     *
+     * @return the center of the ball.
+     */
+    public Point getCenter() {
+        return this.circle.getCenter();
+    }
+
+    /**
+     * Moves the ball to the given center, radius and velocity, without
+     * stepping it.
+     *
+     * @param x           the x of the center.
+     * @param y           the y of the center.
+     * @param radius      the radius.
+     * @param newVelocity the velocity.
+     */
+    void place(double x, double y, int radius, Velocity newVelocity) {
+        this.circle.getCenter().setLocation(x, y);
+        this.circle.setRadius(radius);
+        this.velocity = newVelocity;
     }
 
     /**
@@ -84,15 +123,28 @@ public class Ball implements Sprite {
      * @param surface use this to draw.
      */
     public void drawOn(DrawSurface surface) {
+        this.drawOn(surface, 1);
+    }
+
+    /**
+     * Draws this ball between its last two positions.
+     *
+     * @param surface use this to draw.
+     * @param alpha   0 for the previous position, 1 for the current one.
+     */
+    public void drawOn(DrawSurface surface, double alpha) {
+        Point center = this.circle.getCenter();
+        int xPos = (int) (this.previousX + (center.getX() - this.previousX) * alpha);
+        int yPos = (int) (this.previousY + (center.getY() - this.previousY) * alpha);
         // fill circle with color
         surface.setColor(this.color);
-        surface.fillCircle((int) circle.getCenter().getX(), (int) circle.getCenter().getY(), circle.getRadius());
+        surface.fillCircle(xPos, yPos, circle.getRadius());
         // draw circle with black
         surface.setColor(Color.BLACK);
-        surface.drawCircle((int) circle.getCenter().getX(), (int) circle.getCenter().getY(), circle.getRadius());
+        surface.drawCircle(xPos, yPos, circle.getRadius());
         // draw red point in the center
         surface.setColor(Color.RED);
-        surface.drawCircle((int) circle.getCenter().getX(), (int) this.circle.getCenter().getY(), 1);
+        surface.drawCircle(xPos, yPos, 1);
     }
 
     /**
@@ -110,51 +162,51 @@ public class Ball implements Sprite {
      * @param dt keeps the speed to be according seconds.
      */
     public void timePassed(double dt) {
+        this.keepPosition();
         this.moveOneStep(dt);
     }
 
     /**
-     * Handles the movement of the ball.
-     *
-     * @param dt keeps the speed to be according to seconds.
+     * Keeps the current position of the center as the previous one.
      */
-    private void moveOneStep(double dt) {
-        // solves edge case that ball on paddle
-        this.checkOnPaddle();
-
-        // ball trajectory
-        Line trajectory = new Line(circle.getCenter(), velocity.applyToPoint(circle.getCenter(), dt));
-        // collision information
-        CollisionInfo collisionInfo = this.environment.getClosestCollision(trajectory);
-
-        // case no collision move to end of trajectory
-        if (collisionInfo == null) {
-            this.circle.setCenter(trajectory.end());
-            // case collision
-        } else {
-            // move very close the collision point
-            double xMove = (collisionInfo.collisionPoint().getX() - this.circle.getCenter().getX()) * 0.9999D;
-            double yMove = (collisionInfo.collisionPoint().getY() - this.circle.getCenter().getY()) * 0.9999D;
-            this.circle.setCenter(new Point(circle.getCenter().getX() + xMove, circle.getCenter().getY() + yMove));
-            this.velocity = collisionInfo.collisionObject().hit(this, collisionInfo.collisionPoint(), velocity);
-        }
+    private void keepPosition() {
+        this.previousX = this.circle.getCenter().getX();
+        this.previousY = this.circle.getCenter().getY();
     }
 
     /**
-     * Solves case ball is on paddle.
+     * Handles the movement of the ball.
+     * The ball is swept as a circle, and after every hit it keeps moving
+     * with the new velocity for the rest of the time of this step, so it
+     * never passes through collidables, even at high speeds.
+     *
+     * @param dt keeps the speed to be according to seconds.
      */
-    private void checkOnPaddle() {
-        // sizes, ball's position and epsilon for fix
-        int height = this.environment.getHeight();
-        int border = this.environment.getBorder();
-        double xPos = this.circle.getCenter().getX();
-        int epsilon = this.circle.getRadius();
-
-        // if on paddle move it up
-        Rectangle paddleRec = environment.getPaddleRectangle();
-        if (paddleRec.isPointInside(this.circle.getCenter())) {
-            double pdlHeight = paddleRec.getHeight();
-            this.circle.setCenter(new Point(xPos, height - 0.3 * border - pdlHeight - epsilon));
+    private void moveOneStep(double dt) {
+        Point center = this.circle.getCenter();
+        int radius = this.circle.getRadius();
+        // the part of the step that is left to move
+        double remaining = 1;
+
+        for (int i = 0; i < MAX_HITS_PER_STEP && remaining > 0 && !this.removed; i++) {
+            // ball trajectory as movement of the center
+            double dx = this.velocity.getDx() * dt * remaining;
+            double dy = this.velocity.getDy() * dt * remaining;
+
+            // case no collision move to end of trajectory
+            if (!this.environment.closestHit(center.getX(), center.getY(), dx, dy, radius, this.hit)) {
+                center.setLocation(center.getX() + dx, center.getY() + dy);
+                return;
+            }
+
+            // move to the touching point, and a skin away from the surface
+            // (out of the collidable if it already overlapped us)
+            double time = this.hit.getTime();
+            double away = SKIN + this.hit.getDepth();
+            center.setLocation(center.getX() + time * dx + away * this.hit.getNormalX(),
+                    center.getY() + time * dy + away * this.hit.getNormalY());
+            this.velocity = this.hit.getCollidable().hit(this, this.hit.getPoint(), this.velocity);
+            remaining *= 1 - time;
         }
     }
 
@@ -164,6 +216,7 @@ public class Ball implements Sprite {
      * @param gameLevel that removing from.
      */
     public void removeFromGame(GameLevel gameLevel) {
+        this.removed = true;
         gameLevel.removeSprite(this);
     }
 }
\ No newline at end of file
@@ -0,0 +1,470 @@
+package geometry;
+
+import animation.GameLevel;
+import biuoop.DrawSurface;
+import collisions.ClosestHit;
+import general.GameEnvironment;
+import general.Utils;
+import sprites.InterpolatedSprite;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * BallSystem class.
+ * <p>
+ * Many balls in one sprite, kept as primitive arrays (positions, previous
+ * positions, velocities and radii) instead of a Ball object graph each.
+ * The balls are stepped in one tight loop against the collision grid, with
+ * the same swept movement as Ball, and drawn in a batch of one color at a
+ * time. A stepping ball is seen by the collidables and the hit listeners
+ * through one reused hitter Ball, and a ball that is removed by a listener
+ * is only marked, and compacted out at the end of the step.
+ * Nothing is created while stepping, except what the collidables create.
+ * <p>
+ * Many balls are stepped in two phases. First the first hit of every ball
+ * is found in parallel, by fork-join over batches of balls, while nothing
+ * changes the collidables; a ball without a hit just moves. Then the hits
+ * are applied serially in the order of the balls, so block damage, hit
+ * listeners and removals happen as in a single-threaded run. A found hit
+ * is still the closest one unless an earlier ball removed its collidable
+ * (removals never create new hits), and then the ball searches again, so
+ * the result is the same as stepping the balls one after the other.
+ */
+public class BallSystem implements InterpolatedSprite {
+    private static final int MAX_HITS_PER_STEP = 8;
+    private static final double SKIN = 0.01;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int PARALLEL_THRESHOLD = 512;
+    private static final int BATCH_SIZE = 128;
+    private GameEnvironment environment;
+    private Color color;
+    private int count;
+    private double[] xs;
+    private double[] ys;
+    private double[] previousXs;
+    private double[] previousYs;
+    private double[] dxs;
+    private double[] dys;
+    private double[] radii;
+    private boolean[] removed;
+    private ClosestHit[] firstHits;
+    private boolean parallel;
+    private int removedCount;
+    private ClosestHit hit;
+    private Point contact;
+    private Velocity velocity;
+    private Hitter hitter;
+    private GameLevel gameLevel;
+
+    /**
+     * Constructs an empty ball system in the given environment.
+     *
+     * @param environment the environment of the balls.
+     * @param color       the color of the balls.
+     */
+    public BallSystem(GameEnvironment environment, Color color) {
+        this.environment = environment;
+        this.color = color;
+        this.count = 0;
+        this.xs = new double[INITIAL_CAPACITY];
+        this.ys = new double[INITIAL_CAPACITY];
+        this.previousXs = new double[INITIAL_CAPACITY];
+        this.previousYs = new double[INITIAL_CAPACITY];
+        this.dxs = new double[INITIAL_CAPACITY];
+        this.dys = new double[INITIAL_CAPACITY];
+        this.radii = new double[INITIAL_CAPACITY];
+        this.removed = new boolean[INITIAL_CAPACITY];
+        this.firstHits = new ClosestHit[INITIAL_CAPACITY];
+        this.parallel = true;
+        this.hit = new ClosestHit();
+        this.contact = new Point(0, 0);
+        this.velocity = new Velocity(0, 0);
+        this.hitter = new Hitter();
+    }
+
+    /**
+     * Adds a ball at the starting point.
+     *
+     * @param ballVelocity the velocity of the ball.
+     */
+    public void addBall(Velocity ballVelocity) {
+        this.addBall(Utils.STARTING_POINT.getX(), Utils.STARTING_POINT.getY(), Utils.BALL_SIZE, ballVelocity);
+    }
+
+    /**
+     * Adds a ball.
+     *
+     * @param xPos         the x of the center.
+     * @param yPos         the y of the center.
+     * @param radius       the radius.
+     * @param ballVelocity the velocity of the ball.
+     */
+    public void addBall(double xPos, double yPos, double radius, Velocity ballVelocity) {
+        if (this.count == this.xs.length) {
+            this.grow();
+        }
+        this.xs[this.count] = xPos;
+        this.ys[this.count] = yPos;
+        this.previousXs[this.count] = xPos;
+        this.previousYs[this.count] = yPos;
+        this.dxs[this.count] = ballVelocity.getDx();
+        this.dys[this.count] = ballVelocity.getDy();
+        this.radii[this.count] = radius;
+        this.removed[this.count] = false;
+        this.count++;
+    }
+
+    /**
+     * Turns the parallel search of the first hits on or off. The result is
+     * the same either way, it is used when there are many balls and more
+     * than one core.
+     *
+     * @param parallelSearch true to search in parallel.
+     */
+    public void setParallel(boolean parallelSearch) {
+        this.parallel = parallelSearch;
+    }
+
+    /**
+     * Gives the number of balls.
+     *
+     * @return the number of balls.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Gives the x of the center of a ball.
+     *
+     * @param index the index of the ball.
+     * @return the x of the center.
+     */
+    public double getX(int index) {
+        return this.xs[index];
+    }
+
+    /**
+     * Gives the y of the center of a ball.
+     *
+     * @param index the index of the ball.
+     * @return the y of the center.
+     */
+    public double getY(int index) {
+        return this.ys[index];
+    }
+
+    /**
+     * Draws all the balls at their current positions.
+     *
+     * @param surface use this to draw.
+     */
+    public void drawOn(DrawSurface surface) {
+        this.drawOn(surface, 1);
+    }
+
+    /**
+     * Draws all the balls between their last two positions, like Ball
+     * does, but one color at a time.
+     *
+     * @param surface use this to draw.
+     * @param alpha   0 for the previous positions, 1 for the current ones.
+     */
+    public void drawOn(DrawSurface surface, double alpha) {
+        // fill circles with color
+        surface.setColor(this.color);
+        for (int i = 0; i < this.count; i++) {
+            surface.fillCircle(this.xAt(i, alpha), this.yAt(i, alpha), (int) this.radii[i]);
+        }
+        // draw circles with black
+        surface.setColor(Color.BLACK);
+        for (int i = 0; i < this.count; i++) {
+            surface.drawCircle(this.xAt(i, alpha), this.yAt(i, alpha), (int) this.radii[i]);
+        }
+        // draw red points in the centers
+        surface.setColor(Color.RED);
+        for (int i = 0; i < this.count; i++) {
+            surface.drawCircle(this.xAt(i, alpha), this.yAt(i, alpha), 1);
+        }
+    }
+
+    /**
+     * Adds the ball system to given game.
+     *
+     * @param level the GameLevel that this added to.
+     */
+    public void addToGame(GameLevel level) {
+        this.gameLevel = level;
+        level.addSprite(this);
+    }
+
+    /**
+     * Moves all the balls by one step, and removes the system from the
+     * game when no ball is left.
+     *
+     * @param dt keeps the speed to be according seconds.
+     */
+    public void timePassed(double dt) {
+        System.arraycopy(this.xs, 0, this.previousXs, 0, this.count);
+        System.arraycopy(this.ys, 0, this.previousYs, 0, this.count);
+        if (this.isParallel()) {
+            // find the first hits in parallel, then apply them in order
+            ForkJoinPool.commonPool().invoke(new Trace(0, this.count, dt));
+            for (int i = 0; i < this.count; i++) {
+                ClosestHit first = this.firstHits[i];
+                if (this.removed[i] || !first.isFound()) {
+                    continue;
+                }
+                // case an earlier ball removed the collidable search again
+                this.moveOneStep(i, dt, this.environment.contains(first.getCollidable()) ? first : null);
+            }
+        } else {
+            for (int i = 0; i < this.count; i++) {
+                if (!this.removed[i]) {
+                    this.moveOneStep(i, dt, null);
+                }
+            }
+        }
+        if (this.removedCount > 0) {
+            this.compact();
+            if (this.count == 0 && this.gameLevel != null) {
+                this.gameLevel.removeSprite(this);
+            }
+        }
+    }
+
+    /**
+     * Tells if the first hits are searched in parallel in this step.
+     *
+     * @return true to search in parallel.
+     */
+    private boolean isParallel() {
+        return this.parallel && this.count >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Finds the first hit of one ball for the whole step, and moves it
+     * there if it hits nothing. Only reads the collidables, so it is safe
+     * to call for different balls at the same time.
+     *
+     * @param index the index of the ball.
+     * @param dt    keeps the speed to be according to seconds.
+     */
+    private void trace(int index, double dt) {
+        double dx = this.dxs[index] * dt;
+        double dy = this.dys[index] * dt;
+        ClosestHit first = this.firstHits[index];
+        if (first == null) {
+            first = new ClosestHit();
+            this.firstHits[index] = first;
+        }
+        if (!this.environment.closestHit(this.xs[index], this.ys[index], dx, dy, this.radii[index], first)) {
+            this.xs[index] += dx;
+            this.ys[index] += dy;
+        }
+    }
+
+    /**
+     * Moves one ball like Ball.moveOneStep, with the primitive state.
+     *
+     * @param index the index of the ball.
+     * @param dt    keeps the speed to be according to seconds.
+     * @param first the first hit if already found, or null to search it.
+     */
+    private void moveOneStep(int index, double dt, ClosestHit first) {
+        double radius = this.radii[index];
+        // the part of the step that is left to move
+        double remaining = 1;
+
+        for (int i = 0; i < MAX_HITS_PER_STEP && remaining > 0 && !this.removed[index]; i++) {
+            // ball trajectory as movement of the center
+            double dx = this.dxs[index] * dt * remaining;
+            double dy = this.dys[index] * dt * remaining;
+
+            ClosestHit current = first;
+            first = null;
+            if (current == null) {
+                // case no collision move to end of trajectory
+                if (!this.environment.closestHit(this.xs[index], this.ys[index], dx, dy, radius, this.hit)) {
+                    this.xs[index] += dx;
+                    this.ys[index] += dy;
+                    return;
+                }
+                current = this.hit;
+            }
+
+            // move to the touching point, and a skin away from the surface
+            double time = current.getTime();
+            double away = SKIN + current.getDepth();
+            this.xs[index] = this.xs[index] + time * dx + away * current.getNormalX();
+            this.ys[index] = this.ys[index] + time * dy + away * current.getNormalY();
+
+            // the collidable sees the ball through the hitter
+            this.contact.setLocation(current.getPointX(), current.getPointY());
+            this.velocity.setDx(this.dxs[index]);
+            this.velocity.setDy(this.dys[index]);
+            this.hitter.index = index;
+            this.hitter.place(this.xs[index], this.ys[index], (int) radius, this.velocity);
+            Velocity after = current.getCollidable().hit(this.hitter, this.contact, this.velocity);
+            this.dxs[index] = after.getDx();
+            this.dys[index] = after.getDy();
+            remaining *= 1 - time;
+        }
+    }
+
+    /**
+     * Marks a ball as removed, it stops moving at once and leaves the
+     * arrays at the end of the step.
+     *
+     * @param index the index of the ball.
+     */
+    private void remove(int index) {
+        if (!this.removed[index]) {
+            this.removed[index] = true;
+            this.removedCount++;
+        }
+    }
+
+    /**
+     * Drops the removed balls, keeping the order of the others.
+     */
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < this.count; i++) {
+            if (this.removed[i]) {
+                continue;
+            }
+            this.xs[kept] = this.xs[i];
+            this.ys[kept] = this.ys[i];
+            this.previousXs[kept] = this.previousXs[i];
+            this.previousYs[kept] = this.previousYs[i];
+            this.dxs[kept] = this.dxs[i];
+            this.dys[kept] = this.dys[i];
+            this.radii[kept] = this.radii[i];
+            // swap the scratch hits, so none is shared by two balls
+            ClosestHit keptHit = this.firstHits[i];
+            this.firstHits[i] = this.firstHits[kept];
+            this.firstHits[kept] = keptHit;
+            kept++;
+        }
+        Arrays.fill(this.removed, 0, this.count, false);
+        this.count = kept;
+        this.removedCount = 0;
+    }
+
+    /**
+     * Doubles the capacity of the arrays.
+     */
+    private void grow() {
+        int capacity = this.xs.length * 2;
+        this.xs = Arrays.copyOf(this.xs, capacity);
+        this.ys = Arrays.copyOf(this.ys, capacity);
+        this.previousXs = Arrays.copyOf(this.previousXs, capacity);
+        this.previousYs = Arrays.copyOf(this.previousYs, capacity);
+        this.dxs = Arrays.copyOf(this.dxs, capacity);
+        this.dys = Arrays.copyOf(this.dys, capacity);
+        this.radii = Arrays.copyOf(this.radii, capacity);
+        this.removed = Arrays.copyOf(this.removed, capacity);
+        this.firstHits = Arrays.copyOf(this.firstHits, capacity);
+    }
+
+    /**
+     * Gives the interpolated x of a ball.
+     *
+     * @param index the index of the ball.
+     * @param alpha 0 for the previous position, 1 for the current one.
+     * @return the x to draw at.
+     */
+    private int xAt(int index, double alpha) {
+        return (int) (this.previousXs[index] + (this.xs[index] - this.previousXs[index]) * alpha);
+    }
+
+    /**
+     * Gives the interpolated y of a ball.
+     *
+     * @param index the index of the ball.
+     * @param alpha 0 for the previous position, 1 for the current one.
+     * @return the y to draw at.
+     */
+    private int yAt(int index, double alpha) {
+        return (int) (this.previousYs[index] + (this.ys[index] - this.previousYs[index]) * alpha);
+    }
+
+    /**
+     * The parallel search of the first hits of a range of balls, split in
+     * halves down to batches.
+     */
+    private class Trace extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final double dt;
+
+        /**
+         * Constructs the search of the balls from index from to index to.
+         *
+         * @param from the first index (included).
+         * @param to   the last index (excluded).
+         * @param dt   keeps the speed to be according to seconds.
+         */
+        Trace(int from, int to, double dt) {
+            this.from = from;
+            this.to = to;
+            this.dt = dt;
+        }
+
+        /**
+         * Searches the batch, or splits the range in two.
+         */
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= BATCH_SIZE) {
+                for (int i = this.from; i < this.to; i++) {
+                    BallSystem.this.trace(i, this.dt);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new Trace(this.from, middle, this.dt), new Trace(middle, this.to, this.dt));
+        }
+    }
+
+    /**
+     * The ball that the collidables and the hit listeners see, standing
+     * for the ball of the system that is stepped now.
+     */
+    private class Hitter extends Ball {
+        private int index;
+
+        /**
+         * Constructs the hitter.
+         */
+        Hitter() {
+            super(new Circle(new Point(0, 0), Utils.BALL_SIZE));
+        }
+
+        /**
+         * Removes the stepped ball from the system.
+         *
+         * @param level the level that removing from.
+         */
+        @Override
+        public void removeFromGame(GameLevel level) {
+            BallSystem.this.remove(this.index);
+        }
+
+        /**
+         * Gives the stepped ball's data as string.
+         *
+         * @return the stepped ball's data as string.
+         */
+        @Override
+        public String toString() {
+            return "(" + BallSystem.this.xs[this.index] + ", " + BallSystem.this.ys[this.index] + ") r: "
+                    + BallSystem.this.radii[this.index];
+        }
+    }
+}
@@ -90,6 +90,17 @@ public class Point {
         this.y = newY;
     }
 
+    /**
+     * Moves this point to the given position.
+     *
+     * @param newX the new x position.
+     * @param newY the new y position.
+     */
+    public void setLocation(double newX, double newY) {
+        this.x = newX;
+        this.y = newY;
+    }
+
     /**
      * Gives the point's data as string.
      *
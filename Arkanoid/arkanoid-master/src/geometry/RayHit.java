@@ -0,0 +1,118 @@
+package geometry;
+
+/**
+ * RayHit class.
+ * <p>
+ * The result of a ray test against a rectangle, kept in primitive
+ * doubles so that the same object can be filled again and again
+ * without creating garbage.
+ * Times are parts of the ray (0 is the start, 1 is the end), the normal
+ * is the outward normal of the face that the ray enters through (both
+ * components are set when it enters exactly through a corner), and the
+ * point is the entry point, snapped onto that face.
+ * For a swept circle the point is the contact point on the rectangle,
+ * the normal of a rounded corner is diagonal, and the depth tells how
+ * deep the circle already overlaps the rectangle at time 0.
+ */
+public class RayHit {
+    private double entryTime;
+    private double exitTime;
+    private double normalX;
+    private double normalY;
+    private double pointX;
+    private double pointY;
+    private double depth;
+
+    /**
+     * Sets all the data of the hit.
+     *
+     * @param newEntryTime the time the ray enters.
+     * @param newExitTime  the time the ray exits.
+     * @param newNormalX   the x of the normal of the entry face.
+     * @param newNormalY   the y of the normal of the entry face.
+     * @param newPointX    the x of the entry point.
+     * @param newPointY    the y of the entry point.
+     */
+    void set(double newEntryTime, double newExitTime, double newNormalX, double newNormalY,
+             double newPointX, double newPointY) {
+        this.entryTime = newEntryTime;
+        this.exitTime = newExitTime;
+        this.normalX = newNormalX;
+        this.normalY = newNormalY;
+        this.pointX = newPointX;
+        this.pointY = newPointY;
+        this.depth = 0;
+    }
+
+    /**
+     * Sets the depth of the overlap at time 0.
+     *
+     * @param newDepth the depth of the overlap.
+     */
+    void setDepth(double newDepth) {
+        this.depth = newDepth;
+    }
+
+    /**
+     * Gives the time the ray enters the rectangle.
+     *
+     * @return the entry time.
+     */
+    public double getEntryTime() {
+        return this.entryTime;
+    }
+
+    /**
+     * Gives the time the ray exits the rectangle.
+     *
+     * @return the exit time.
+     */
+    public double getExitTime() {
+        return this.exitTime;
+    }
+
+    /**
+     * Gives the x of the normal of the entry face.
+     *
+     * @return -1 for left, 1 for right, 0 if not entering from the side.
+     */
+    public double getNormalX() {
+        return this.normalX;
+    }
+
+    /**
+     * Gives the y of the normal of the entry face.
+     *
+     * @return -1 for top, 1 for bottom, 0 if not entering from top or bottom.
+     */
+    public double getNormalY() {
+        return this.normalY;
+    }
+
+    /**
+     * Gives the x of the entry point.
+     *
+     * @return the x of the entry point.
+     */
+    public double getPointX() {
+        return this.pointX;
+    }
+
+    /**
+     * Gives the y of the entry point.
+     *
+     * @return the y of the entry point.
+     */
+    public double getPointY() {
+        return this.pointY;
+    }
+
+    /**
+     * Gives the depth of the overlap at time 0 (0 if not overlapping).
+     *
+     * @return the depth of the overlap.
+     */
+    public double getDepth() {
+        return this.depth;
+    }
+}
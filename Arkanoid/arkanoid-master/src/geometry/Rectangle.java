@@ -12,6 +12,7 @@ import java.util.List;
  * @author Ori.
  */
 public class Rectangle implements Shape {
+    private static final double CORNER_EPSILON = 1e-9;
     private Point topLeft;
     private double width;
     private double height;
@@ -78,6 +79,283 @@ public class Rectangle implements Shape {
         return intersections;
     }
 
+    /**
+     * Tests the ray from (xPos, yPos) moving by (dx, dy) against this rectangle
+     * using the slab method, without creating any objects.
+     * Only entries during the ray count: a ray that starts inside the
+     * rectangle, or that enters it after its end, doesn't hit.
+     *
+     * @param xPos the x of the start of the ray.
+     * @param yPos the y of the start of the ray.
+     * @param dx   the movement on the x axis along the whole ray.
+     * @param dy   the movement on the y axis along the whole ray.
+     * @param hit  filled with the times, normal and point of the entry.
+     * @return true if the ray enters the rectangle, else false.
+     */
+    public boolean intersectRay(double xPos, double yPos, double dx, double dy, RayHit hit) {
+        double minX = this.topLeft.getX();
+        double minY = this.topLeft.getY();
+        double maxX = minX + this.width;
+        double maxY = minY + this.height;
+
+        // the slab of the x axis
+        double enterX = Double.NEGATIVE_INFINITY;
+        double exitX = Double.POSITIVE_INFINITY;
+        if (dx == 0) {
+            if (xPos < minX || xPos > maxX) {
+                return false;
+            }
+        } else {
+            double t1 = (minX - xPos) / dx;
+            double t2 = (maxX - xPos) / dx;
+            enterX = Math.min(t1, t2);
+            exitX = Math.max(t1, t2);
+        }
+
+        // the slab of the y axis
+        double enterY = Double.NEGATIVE_INFINITY;
+        double exitY = Double.POSITIVE_INFINITY;
+        if (dy == 0) {
+            if (yPos < minY || yPos > maxY) {
+                return false;
+            }
+        } else {
+            double t1 = (minY - yPos) / dy;
+            double t2 = (maxY - yPos) / dy;
+            enterY = Math.min(t1, t2);
+            exitY = Math.max(t1, t2);
+        }
+
+        // the ray is inside both slabs between entry and exit
+        double entry = Math.max(enterX, enterY);
+        double exit = Math.min(exitX, exitY);
+        if (entry > exit || entry < 0 || entry > 1) {
+            return false;
+        }
+
+        // the entry face is of the axis that is entered last (both on a corner)
+        double normalX = 0;
+        double normalY = 0;
+        if (enterX >= enterY - CORNER_EPSILON) {
+            normalX = dx > 0 ? -1 : 1;
+        }
+        if (enterY >= enterX - CORNER_EPSILON) {
+            normalY = dy > 0 ? -1 : 1;
+        }
+
+        // snap the entry point onto the entry face
+        double pointX = xPos + entry * dx;
+        double pointY = yPos + entry * dy;
+        if (normalX != 0) {
+            pointX = normalX < 0 ? minX : maxX;
+        }
+        if (normalY != 0) {
+            pointY = normalY < 0 ? minY : maxY;
+        }
+        hit.set(entry, exit, normalX, normalY, pointX, pointY);
+        return true;
+    }
+
+    /**
+     * Tests a circle of the given radius, whose center moves from (xPos, yPos)
+     * by (dx, dy), against this rectangle, without creating any objects.
+     * It is a ray test against the rectangle expanded by the radius (the
+     * Minkowski sum), whose corners are rounded.
+     * A circle that already overlaps the rectangle and moves into it hits at
+     * time 0, with the normal of the least overlap and the overlap depth.
+     * A circle that moves out of the rectangle doesn't hit.
+     *
+     * @param xPos   the x of the center at the start.
+     * @param yPos   the y of the center at the start.
+     * @param dx     the movement of the center on the x axis.
+     * @param dy     the movement of the center on the y axis.
+     * @param radius the radius of the circle.
+     * @param hit    filled with the time, normal and contact point.
+     * @return true if the circle hits the rectangle, else false.
+     */
+    public boolean sweepCircle(double xPos, double yPos, double dx, double dy, double radius, RayHit hit) {
+        // a point is a plain ray
+        if (radius <= 0) {
+            return this.intersectRay(xPos, yPos, dx, dy, hit);
+        }
+        double minX = this.topLeft.getX();
+        double minY = this.topLeft.getY();
+        double maxX = minX + this.width;
+        double maxY = minY + this.height;
+
+        // case overlapping already
+        if (this.overlap(xPos, yPos, dx, dy, radius, hit)) {
+            return hit.getDepth() >= 0;
+        }
+
+        // ray test against the expanded rectangle
+        double enterX = Double.NEGATIVE_INFINITY;
+        double exitX = Double.POSITIVE_INFINITY;
+        if (dx == 0) {
+            if (xPos < minX - radius || xPos > maxX + radius) {
+                return false;
+            }
+        } else {
+            double t1 = (minX - radius - xPos) / dx;
+            double t2 = (maxX + radius - xPos) / dx;
+            enterX = Math.min(t1, t2);
+            exitX = Math.max(t1, t2);
+        }
+        double enterY = Double.NEGATIVE_INFINITY;
+        double exitY = Double.POSITIVE_INFINITY;
+        if (dy == 0) {
+            if (yPos < minY - radius || yPos > maxY + radius) {
+                return false;
+            }
+        } else {
+            double t1 = (minY - radius - yPos) / dy;
+            double t2 = (maxY + radius - yPos) / dy;
+            enterY = Math.min(t1, t2);
+            exitY = Math.max(t1, t2);
+        }
+        double entry = Math.max(enterX, enterY);
+        double exit = Math.min(exitX, exitY);
+        if (entry > exit || exit < 0 || entry > 1) {
+            return false;
+        }
+        // case starting inside the expanded rectangle without overlapping,
+        // that is near a rounded corner, or exactly touching
+        entry = Math.max(entry, 0);
+
+        // the center when entering the expanded rectangle
+        double centerX = xPos + entry * dx;
+        double centerY = yPos + entry * dy;
+        boolean outX = centerX < minX || centerX > maxX;
+        boolean outY = centerY < minY || centerY > maxY;
+
+        // case a rounded corner, hit the circle around the corner
+        if (outX && outY) {
+            double cornerX = centerX < minX ? minX : maxX;
+            double cornerY = centerY < minY ? minY : maxY;
+            double time = circleTime(xPos - cornerX, yPos - cornerY, dx, dy, radius);
+            if (Double.isNaN(time) || time > 1) {
+                return false;
+            }
+            double normalX = (xPos + time * dx - cornerX) / radius;
+            double normalY = (yPos + time * dy - cornerY) / radius;
+            hit.set(time, exit, normalX, normalY, cornerX, cornerY);
+            return true;
+        }
+
+        // case a face, the contact point is the center projected on it
+        double normalX = 0;
+        double normalY = 0;
+        double pointX = Math.max(minX, Math.min(maxX, centerX));
+        double pointY = Math.max(minY, Math.min(maxY, centerY));
+        if (enterX >= enterY) {
+            normalX = dx > 0 ? -1 : 1;
+            pointX = normalX < 0 ? minX : maxX;
+        } else {
+            normalY = dy > 0 ? -1 : 1;
+            pointY = normalY < 0 ? minY : maxY;
+        }
+        // case touching and moving along or away
+        if (dx * normalX + dy * normalY >= 0) {
+            return false;
+        }
+        hit.set(entry, exit, normalX, normalY, pointX, pointY);
+        return true;
+    }
+
+    /**
+     * Checks if the circle overlaps this rectangle at its start.
+     * If it does, fills the hit at time 0 with the normal of the least
+     * overlap and the depth, or with a negative depth if the circle moves
+     * out of the rectangle.
+     *
+     * @param xPos   the x of the center.
+     * @param yPos   the y of the center.
+     * @param dx     the movement of the center on the x axis.
+     * @param dy     the movement of the center on the y axis.
+     * @param radius the radius of the circle.
+     * @param hit    filled if overlapping.
+     * @return true if the circle overlaps this rectangle, else false.
+     */
+    private boolean overlap(double xPos, double yPos, double dx, double dy, double radius, RayHit hit) {
+        double minX = this.topLeft.getX();
+        double minY = this.topLeft.getY();
+        double maxX = minX + this.width;
+        double maxY = minY + this.height;
+
+        // the closest point of the rectangle to the center
+        double closeX = Math.max(minX, Math.min(maxX, xPos));
+        double closeY = Math.max(minY, Math.min(maxY, yPos));
+        double distX = xPos - closeX;
+        double distY = yPos - closeY;
+        double distSquared = distX * distX + distY * distY;
+        if (distSquared >= radius * radius) {
+            return false;
+        }
+
+        double normalX;
+        double normalY;
+        double depth;
+        if (distSquared > 0) {
+            // case center outside, push away from the closest point
+            double dist = Math.sqrt(distSquared);
+            normalX = distX / dist;
+            normalY = distY / dist;
+            depth = radius - dist;
+        } else {
+            // case center inside, push out through the nearest face
+            double left = xPos - minX;
+            double right = maxX - xPos;
+            double top = yPos - minY;
+            double bottom = maxY - yPos;
+            double least = Math.min(Math.min(left, right), Math.min(top, bottom));
+            normalX = 0;
+            normalY = 0;
+            if (least == top) {
+                normalY = -1;
+                closeY = minY;
+            } else if (least == bottom) {
+                normalY = 1;
+                closeY = maxY;
+            } else if (least == left) {
+                normalX = -1;
+                closeX = minX;
+            } else {
+                normalX = 1;
+                closeX = maxX;
+            }
+            depth = least + radius;
+        }
+
+        hit.set(0, 0, normalX, normalY, closeX, closeY);
+        // moving out (or along) doesn't hit again
+        hit.setDepth(dx * normalX + dy * normalY < 0 ? depth : -1);
+        return true;
+    }
+
+    /**
+     * Gives the first time a point at (xPos, yPos) moving by (dx, dy) is at
+     * the given distance from the origin.
+     *
+     * @param xPos   the x of the point relative to the origin.
+     * @param yPos   the y of the point relative to the origin.
+     * @param dx     the movement on the x axis.
+     * @param dy     the movement on the y axis.
+     * @param radius the distance.
+     * @return the first time, or NaN if never.
+     */
+    private static double circleTime(double xPos, double yPos, double dx, double dy, double radius) {
+        // solve |p + t * d| = r
+        double a = dx * dx + dy * dy;
+        double b = xPos * dx + yPos * dy;
+        double c = xPos * xPos + yPos * yPos - radius * radius;
+        double discriminant = b * b - a * c;
+        if (a == 0 || discriminant < 0) {
+            return Double.NaN;
+        }
+        double time = (-b - Math.sqrt(discriminant)) / a;
+        return time < 0 ? Double.NaN : time;
+    }
+
     /**
      * Gives the rectangle's data as string.
      *
@@ -146,12 +424,13 @@ public class Rectangle implements Shape {
      */
     public List<Line> getLines() {
         List<Line> lines = new ArrayList<>();
+        List<Point> points = this.getPoints();
 
         // generate the lines of the rectangle
-        Line top = new Line(this.topLeft, this.getPoints().get(1));
-        Line bottom = new Line(this.getPoints().get(3), this.getPoints().get(2));
-        Line left = new Line(this.topLeft, this.getPoints().get(3));
-        Line right = new Line(this.getPoints().get(1), this.getPoints().get(2));
+        Line top = new Line(this.topLeft, points.get(1));
+        Line bottom = new Line(points.get(3), points.get(2));
+        Line left = new Line(this.topLeft, points.get(3));
+        Line right = new Line(points.get(1), points.get(2));
 
         // store clockwise
         lines.add(top);
@@ -188,16 +467,8 @@ public class Rectangle implements Shape {
      * @return true if the point is on frame, else false.
      */
     public boolean isPointOnFrame(Point point) {
-        Point start, end;
-        for (int i = 0; i < getLines().size(); i++) {
-            start = getLines().get(i).start();
-            end = getLines().get(i).end();
-            // if on one segment of the frame return true
-            if (point.onSegment(start, end)) {
-                return true;
-            }
-        }
-        return false;
+        // if on one segment of the frame return true
+        return this.isOnTop(point) || this.isOnRight(point) || this.isOnBottom(point) || this.isOnLeft(point);
     }
 
     /**
@@ -226,9 +497,9 @@ public class Rectangle implements Shape {
      * @return true if point is on top, else false.
      */
     public boolean isOnTop(Point point) {
-        Point start = getLines().get(0).start();
-        Point end = getLines().get(0).end();
-        return point.onSegment(start, end);
+        double xPos = this.topLeft.getX();
+        double yPos = this.topLeft.getY();
+        return point.getY() == yPos && xPos <= point.getX() && point.getX() <= xPos + this.width;
     }
 
     /**
@@ -238,9 +509,9 @@ public class Rectangle implements Shape {
      * @return true if point is on right, else false.
      */
     public boolean isOnRight(Point point) {
-        Point start = getLines().get(1).start();
-        Point end = getLines().get(1).end();
-        return point.onSegment(start, end);
+        double xPos = this.topLeft.getX() + this.width;
+        double yPos = this.topLeft.getY();
+        return point.getX() == xPos && yPos <= point.getY() && point.getY() <= yPos + this.height;
     }
 
     /**
@@ -250,9 +521,9 @@ public class Rectangle implements Shape {
      * @return true if point is on bottom, else false.
      */
     public boolean isOnBottom(Point point) {
-        Point start = getLines().get(2).start();
-        Point end = getLines().get(2).end();
-        return point.onSegment(start, end);
+        double xPos = this.topLeft.getX();
+        double yPos = this.topLeft.getY() + this.height;
+        return point.getY() == yPos && xPos <= point.getX() && point.getX() <= xPos + this.width;
     }
 
     /**
@@ -262,9 +533,9 @@ public class Rectangle implements Shape {
      * @return true if point is on left, else false.
      */
     public boolean isOnLeft(Point point) {
-        Point start = getLines().get(3).start();
-        Point end = getLines().get(3).end();
-        return point.onSegment(start, end);
+        double xPos = this.topLeft.getX();
+        double yPos = this.topLeft.getY();
+        return point.getX() == xPos && yPos <= point.getY() && point.getY() <= yPos + this.height;
     }
 
     /**
@@ -0,0 +1,219 @@
+package levels;
+
+import creators.BlockCreator;
+import general.LazyImage;
+import general.Utils;
+import geometry.Velocity;
+import sprites.Sprite;
+import sprites.blocks.BaseBlock;
+
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CompiledLevel class.
+ * <p>
+ * A level loaded from a compiled levels file. The blocks are kept as
+ * arrays of types and positions, and new blocks are created on every call
+ * of blocks, so the level can be played again. The background is made
+ * only when the level is first played.
+ */
+public class CompiledLevel implements LevelInformation {
+    private String levelName;
+    private int paddleSpeed;
+    private int paddleWidth;
+    private int numBlocks;
+    private int rowHeight;
+    private int xPosBlocks;
+    private int yPosBlocks;
+    private String backgroundDefinition;
+    private List<Velocity> velocities;
+    private BlockCreator[] creators;
+    private int[] blockTypes;
+    private int[] blockXs;
+    private int[] blockYs;
+    private Sprite background;
+
+    /**
+     * Constructs a compiled level.
+     *
+     * @param levelName            the name of the level.
+     * @param paddleSpeed          the speed of the paddle.
+     * @param paddleWidth          the width of the paddle.
+     * @param numBlocks            the number of blocks to remove.
+     * @param rowHeight            the height of a row of blocks.
+     * @param xPosBlocks           the x of the blocks.
+     * @param yPosBlocks           the y of the blocks.
+     * @param backgroundDefinition the background definition, like "color(black)".
+     * @param velocities           the initial velocities of the balls.
+     * @param creators             the creators of the block types of the file.
+     * @param blockTypes           the type of every block.
+     * @param blockXs              the x of every block.
+     * @param blockYs              the y of every block.
+     */
+    CompiledLevel(String levelName, int paddleSpeed, int paddleWidth, int numBlocks, int rowHeight,
+                  int xPosBlocks, int yPosBlocks, String backgroundDefinition, List<Velocity> velocities,
+                  BlockCreator[] creators, int[] blockTypes, int[] blockXs, int[] blockYs) {
+        this.levelName = levelName;
+        this.paddleSpeed = paddleSpeed;
+        this.paddleWidth = paddleWidth;
+        this.numBlocks = numBlocks;
+        this.rowHeight = rowHeight;
+        this.xPosBlocks = xPosBlocks;
+        this.yPosBlocks = yPosBlocks;
+        this.backgroundDefinition = backgroundDefinition;
+        this.velocities = velocities;
+        this.creators = creators;
+        this.blockTypes = blockTypes;
+        this.blockXs = blockXs;
+        this.blockYs = blockYs;
+    }
+
+    /**
+     * Gives the level name.
+     *
+     * @return the level name.
+     */
+    @Override
+    public String levelName() {
+        return this.levelName;
+    }
+
+    /**
+     * Gives the paddles width.
+     *
+     * @return the paddles width.
+     */
+    @Override
+    public int paddleWidth() {
+        return this.paddleWidth;
+    }
+
+    /**
+     * Gives the paddles speed.
+     *
+     * @return the paddles speed.
+     */
+    @Override
+    public int paddleSpeed() {
+        return this.paddleSpeed;
+    }
+
+    /**
+     * Gives the background, made on the first call.
+     *
+     * @return the background, null if the level has none.
+     */
+    @Override
+    public Sprite getBackground() {
+        if (this.background == null && this.backgroundDefinition != null) {
+            this.background = Utils.parseBackground(this.backgroundDefinition);
+        }
+        return this.background;
+    }
+
+    /**
+     * Gives a new blocks list.
+     *
+     * @return the blocks list.
+     */
+    @Override
+    public List<BaseBlock> blocks() {
+        List<BaseBlock> blocks = new ArrayList<>(this.blockTypes.length);
+        for (int i = 0; i < this.blockTypes.length; i++) {
+            blocks.add(this.creators[this.blockTypes[i]].create(this.blockXs[i], this.blockYs[i]));
+        }
+        return blocks;
+    }
+
+    /**
+     * Gives the images of the block types of the level, each once.
+     *
+     * @return the images of the blocks.
+     */
+    @Override
+    public List<LazyImage> blockImages() {
+        boolean[] used = new boolean[this.creators.length];
+        Set<LazyImage> images = new LinkedHashSet<>();
+        for (int type : this.blockTypes) {
+            if (!used[type]) {
+                used[type] = true;
+                images.addAll(this.creators[type].getImages());
+            }
+        }
+        return new ArrayList<>(images);
+    }
+
+    /**
+     * Gives the number of the blocks to remove.
+     *
+     * @return the number of the blocks to remove.
+     */
+    @Override
+    public int numberOfBlocksToRemove() {
+        return this.numBlocks;
+    }
+
+    /**
+     * Gives the number of the balls.
+     *
+     * @return the number of the balls.
+     */
+    @Override
+    public int numberOfBalls() {
+        return this.velocities.size();
+    }
+
+    /**
+     * Gives the velocities.
+     *
+     * @return the velocities.
+     */
+    @Override
+    public List<Velocity> initialBallVelocities() {
+        return this.velocities;
+    }
+
+    /**
+     * No block definitions file, the block types are compiled in.
+     *
+     * @return null.
+     */
+    @Override
+    public InputStreamReader blockDefinitionsFile() {
+        return null;
+    }
+
+    /**
+     * Gives xPos of blocks.
+     *
+     * @return xPos of blocks.
+     */
+    @Override
+    public int xPosBlocks() {
+        return this.xPosBlocks;
+    }
+
+    /**
+     * Gives yPos of blocks.
+     *
+     * @return yPos of blocks.
+     */
+    @Override
+    public int yPosBlocks() {
+        return this.yPosBlocks;
+    }
+
+    /**
+     * Gives the height of a row of blocks.
+     *
+     * @return the height of a row of blocks.
+     */
+    @Override
+    public int rowHeight() {
+        return this.rowHeight;
+    }
+}
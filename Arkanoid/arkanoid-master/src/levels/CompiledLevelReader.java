@@ -0,0 +1,251 @@
+package levels;
+
+import creators.BlockCreator;
+import creators.ColorsImagesBlockCreator;
+import general.LazyImage;
+import geometry.Velocity;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * CompiledLevelReader class.
+ * <p>
+ * Loads the levels of a file made by LevelCompiler. A file on the disk is
+ * memory-mapped, and the tables and arrays are read straight out of the
+ * mapped buffer; nothing is parsed and no block is created until a level
+ * is played.
+ */
+public class CompiledLevelReader {
+    private static final int MAX_COUNT = 1 << 20;
+
+    /**
+     * Loads the compiled levels of a resource.
+     *
+     * @param path the path of the resource.
+     * @return the levels, or null if there is no such resource.
+     * @throws IOException if failed reading or not a compiled levels file.
+     */
+    public static List<CompiledLevel> fromResource(String path) throws IOException {
+        URL url = ClassLoader.getSystemClassLoader().getResource(path);
+        if (url == null) {
+            return null;
+        }
+        // files are mapped, anything else (like a jar entry) is read
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return fromFile(new File(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException("failed to locate " + url);
+            }
+        }
+        try (InputStream is = url.openStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = is.read(chunk)) != -1) {
+                bytes.write(chunk, 0, read);
+            }
+            return fromBuffer(ByteBuffer.wrap(bytes.toByteArray()));
+        }
+    }
+
+    /**
+     * Loads the compiled levels of a file, memory-mapping it.
+     *
+     * @param file the file.
+     * @return the levels.
+     * @throws IOException if failed reading or not a compiled levels file.
+     */
+    public static List<CompiledLevel> fromFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return fromBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Loads the compiled levels from a buffer. The checksum is checked
+     * before anything is parsed, every count and index is checked against
+     * the rest of the buffer and the tables, and the sources are hashed
+     * again to check they are the ones compiled.
+     *
+     * @param buffer the buffer, read from its position.
+     * @return the levels.
+     * @throws IOException if not a compiled levels file, a corrupted one, or
+     *                     one whose sources changed.
+     */
+    public static List<CompiledLevel> fromBuffer(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 12 || buffer.getInt() != LevelCompiler.MAGIC) {
+            throw new IOException("not a compiled levels file");
+        }
+        int version = buffer.getInt();
+        if (version != LevelCompiler.VERSION) {
+            throw new IOException("unsupported compiled levels version " + version);
+        }
+        int checksum = buffer.getInt();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("corrupted compiled levels file");
+        }
+        try {
+            return levels(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("corrupted compiled levels file");
+        }
+    }
+
+    /**
+     * Parses the tables and the levels that follow the header.
+     *
+     * @param buffer the buffer, at the end of the header.
+     * @return the levels.
+     * @throws IOException if a count or an index is out of its bounds, or a
+     *                     source changed.
+     */
+    private static List<CompiledLevel> levels(ByteBuffer buffer) throws IOException {
+        // the sources must not have changed since compiling
+        for (int i = count(buffer, Integer.BYTES + LevelCompiler.HASH_LENGTH); i > 0; i--) {
+            byte[] bytes = new byte[count(buffer, 1)];
+            buffer.get(bytes);
+            String source = new String(bytes, StandardCharsets.UTF_8);
+            byte[] hash = new byte[LevelCompiler.HASH_LENGTH];
+            buffer.get(hash);
+            if (!Arrays.equals(hash, LevelCompiler.hashOf(source))) {
+                throw new IOException("out of date, " + source + " changed");
+            }
+        }
+
+        // strings
+        String[] strings = new String[count(buffer, Integer.BYTES)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[count(buffer, 1)];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // colors
+        Color[] colors = new Color[count(buffer, Integer.BYTES)];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = new Color(buffer.getInt(), true);
+        }
+
+        // block types, one creator each, shared by all the levels
+        BlockCreator[] creators = new BlockCreator[count(buffer, 6 * Integer.BYTES)];
+        for (int i = 0; i < creators.length; i++) {
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            int hitPoints = buffer.getInt();
+            Color stroke = at(colors, buffer.getInt());
+            Map<Integer, Color> fillColors = new HashMap<>();
+            for (int j = count(buffer, 2 * Integer.BYTES); j > 0; j--) {
+                int key = buffer.getInt();
+                fillColors.put(key, at(colors, buffer.getInt()));
+            }
+            Map<Integer, LazyImage> fillImages = new HashMap<>();
+            for (int j = count(buffer, 2 * Integer.BYTES); j > 0; j--) {
+                int key = buffer.getInt();
+                String image = at(strings, buffer.getInt());
+                if (image == null) {
+                    throw new IOException("corrupted compiled levels file");
+                }
+                fillImages.put(key, LazyImage.of(image, width, height));
+            }
+            creators[i] = new ColorsImagesBlockCreator(width, height, hitPoints, stroke, fillColors, fillImages);
+        }
+
+        // levels
+        int count = count(buffer, 10 * Integer.BYTES);
+        List<CompiledLevel> levels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = at(strings, buffer.getInt());
+            int paddleSpeed = buffer.getInt();
+            int paddleWidth = buffer.getInt();
+            int numBlocks = buffer.getInt();
+            int rowHeight = buffer.getInt();
+            int xPos = buffer.getInt();
+            int yPos = buffer.getInt();
+            String background = at(strings, buffer.getInt());
+            List<Velocity> velocities = new ArrayList<>();
+            for (int j = count(buffer, 2 * Double.BYTES); j > 0; j--) {
+                double dx = buffer.getDouble();
+                velocities.add(new Velocity(dx, buffer.getDouble()));
+            }
+            int blocks = count(buffer, 3 * Integer.BYTES);
+            int[] types = ints(buffer, blocks);
+            for (int type : types) {
+                if (type < 0 || type >= creators.length) {
+                    throw new IOException("corrupted compiled levels file");
+                }
+            }
+            int[] xs = ints(buffer, blocks);
+            int[] ys = ints(buffer, blocks);
+            levels.add(new CompiledLevel(name, paddleSpeed, paddleWidth, numBlocks, rowHeight, xPos, yPos,
+                    background, velocities, creators, types, xs, ys));
+        }
+        return levels;
+    }
+
+    /**
+     * Reads a count of items, checking that it fits the rest of the buffer
+     * and the maximum.
+     *
+     * @param buffer   the buffer.
+     * @param itemSize the least size of one item in bytes.
+     * @return the count.
+     * @throws IOException if the count is out of its bounds.
+     */
+    private static int count(ByteBuffer buffer, int itemSize) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > MAX_COUNT || count > buffer.remaining() / itemSize) {
+            throw new IOException("corrupted compiled levels file");
+        }
+        return count;
+    }
+
+    /**
+     * Reads an array of ints in one bulk get.
+     *
+     * @param buffer the buffer.
+     * @param length the length of the array.
+     * @return the array.
+     */
+    private static int[] ints(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * Gives an item of a table by index.
+     *
+     * @param table the table.
+     * @param index the index, -1 for null.
+     * @param <T>   the type of the items.
+     * @return the item, null for -1.
+     * @throws IOException if the index is out of the table.
+     */
+    private static <T> T at(T[] table, int index) throws IOException {
+        if (index < -1 || index >= table.length) {
+            throw new IOException("corrupted compiled levels file");
+        }
+        return index == -1 ? null : table[index];
+    }
+}
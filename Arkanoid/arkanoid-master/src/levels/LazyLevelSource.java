@@ -0,0 +1,109 @@
+package levels;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LazyLevelSource class.
+ * <p>
+ * A level source of a level definitions text. The text is read once and
+ * scanned only for the START_LEVEL and END_LEVEL lines; a level is parsed
+ * (with its block definitions, blocks and background) only when it is
+ * asked for, so levels that are never reached cost nothing.
+ * Every call parses the level again, so a played level can be replayed.
+ */
+public class LazyLevelSource implements LevelSource {
+    private String text;
+    private List<int[]> bounds;
+
+    /**
+     * Constructs a source of the levels of the given text.
+     *
+     * @param text the level definitions text.
+     */
+    public LazyLevelSource(String text) {
+        this.text = text;
+        this.bounds = scan(text);
+    }
+
+    /**
+     * Reads a level definitions text and constructs its source.
+     *
+     * @param reader the reader of the text, closed at the end.
+     * @return the source of the levels.
+     * @throws IOException if failed reading.
+     */
+    public static LazyLevelSource fromReader(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (Reader in = reader) {
+            char[] chunk = new char[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                text.append(chunk, 0, read);
+            }
+        }
+        return new LazyLevelSource(text.toString());
+    }
+
+    /**
+     * Gives the number of levels.
+     *
+     * @return the number of levels.
+     */
+    @Override
+    public int size() {
+        return this.bounds.size();
+    }
+
+    /**
+     * Parses the level of the given index.
+     *
+     * @param index the index of the level.
+     * @return the level.
+     */
+    @Override
+    public LevelFromReader get(int index) {
+        int[] level = this.bounds.get(index);
+        try {
+            return LevelSpecificationReader.fromReader(
+                    new StringReader(this.text.substring(level[0], level[1]))).get(0);
+        } catch (IOException e) {
+            throw new RuntimeException("failed to load level " + index);
+        }
+    }
+
+    /**
+     * Finds where every level starts and ends in the text.
+     *
+     * @param text the level definitions text.
+     * @return {start, end} of every level, from its START_LEVEL line to the
+     * end of its END_LEVEL line.
+     */
+    private static List<int[]> scan(String text) {
+        List<int[]> bounds = new ArrayList<>();
+        int start = -1;
+        int lineStart = 0;
+        while (lineStart < text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd == -1) {
+                lineEnd = text.length();
+            }
+            String line = text.substring(lineStart, lineEnd);
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            // like the reader, a level starts only on an exact START_LEVEL line
+            if (start == -1 && line.equals("START_LEVEL")) {
+                start = lineStart;
+            } else if (start != -1 && line.trim().equals("END_LEVEL")) {
+                bounds.add(new int[]{start, Math.min(lineEnd + 1, text.length())});
+                start = -1;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return bounds;
+    }
+}
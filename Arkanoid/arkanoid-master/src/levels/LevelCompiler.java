@@ -0,0 +1,356 @@
+package levels;
+
+import general.LazyImage;
+import general.Utils;
+import geometry.Velocity;
+import sprites.blocks.BaseBlock;
+import sprites.blocks.ColorsImagesBlock;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * LevelCompiler class.
+ * <p>
+ * Compiles level definitions files (and the block definitions files they
+ * use) into a compact binary file, that CompiledLevelReader loads without
+ * parsing any text. The levels are first read by LevelSpecificationReader,
+ * so the compiled levels are exactly the ones the text gives.
+ * <p>
+ * The format (big endian):
+ * <pre>
+ * int magic, int version, int CRC32 of everything after it
+ * int sources, each: int length, UTF-8 resource path, byte[32] SHA-256
+ *     (the level definitions, then every block definitions file they use)
+ * int strings, each: int length, UTF-8 bytes (names, backgrounds, image paths)
+ * int colors, each: int ARGB
+ * int block types, each: int width, int height, int hit points,
+ *     int stroke color (-1 none), int fill colors, each: int k, int color,
+ *     int fill images, each: int k, int string
+ * int levels, each: int name, int paddle speed, int paddle width,
+ *     int blocks to remove, int row height, int blocks x, int blocks y,
+ *     int background (-1 none), int balls, each: double dx, double dy,
+ *     int blocks, then int[blocks] types, int[blocks] xs, int[blocks] ys
+ * </pre>
+ * Strings and colors are given by their index in the tables, -1 for null.
+ * The reader checks the CRC before parsing, and rejects any count or index
+ * out of its bounds. It also hashes the sources again, and rejects the file
+ * if any of them changed since it was compiled.
+ */
+public class LevelCompiler {
+    /**
+     * The magic number that starts a compiled levels file, "ARKL".
+     */
+    public static final int MAGIC = 0x41524B4C;
+    /**
+     * The version of the format.
+     */
+    public static final int VERSION = 3;
+    /**
+     * The suffix of compiled levels files, in place of ".txt".
+     */
+    public static final String SUFFIX = ".lvl";
+    /**
+     * The length of the hash of a source.
+     */
+    public static final int HASH_LENGTH = 32;
+
+    private List<String> strings;
+    private Map<String, Integer> stringIndexes;
+    private List<Color> colors;
+    private Map<Color, Integer> colorIndexes;
+    private List<int[]> types;
+    private Map<List<Integer>, Integer> typeIndexes;
+
+    /**
+     * Constructs a compiler with empty tables.
+     */
+    public LevelCompiler() {
+        this.strings = new ArrayList<>();
+        this.stringIndexes = new HashMap<>();
+        this.colors = new ArrayList<>();
+        this.colorIndexes = new HashMap<>();
+        this.types = new ArrayList<>();
+        this.typeIndexes = new HashMap<>();
+    }
+
+    /**
+     * Compiles the given level definitions resources (all the level sets if
+     * none given) into compiled files in the output directory.
+     *
+     * @param args "-d directory" for the output (resources by default), and
+     *             paths of level definitions resources.
+     */
+    public static void main(String[] args) {
+        String directory = "resources";
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-d") && i + 1 < args.length) {
+                directory = args[++i];
+            } else {
+                paths.add(args[i]);
+            }
+        }
+        if (paths.isEmpty()) {
+            for (LevelSets.LevelSet levelSet : Utils.levelSets().getLevelSetList()) {
+                paths.add(levelSet.getPath());
+            }
+        }
+
+        for (String path : paths) {
+            InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+            if (is == null) {
+                throw new RuntimeException("failed to find the levels " + path);
+            }
+            File output = new File(directory, compiledPath(new File(path).getName()));
+            try {
+                List<LevelFromReader> levels = LevelSpecificationReader.fromReader(new InputStreamReader(is));
+                try (OutputStream out = new FileOutputStream(output)) {
+                    new LevelCompiler().compile(path, levels, out);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("failed compiling " + path);
+            }
+            System.out.println(path + " -> " + output.getPath() + " (" + output.length() + " bytes)");
+        }
+    }
+
+    /**
+     * Gives the path of the compiled file of a level definitions file.
+     *
+     * @param path the path of the level definitions file.
+     * @return the path of the compiled file.
+     */
+    public static String compiledPath(String path) {
+        String base = path.endsWith(".txt") ? path.substring(0, path.length() - ".txt".length()) : path;
+        return base + SUFFIX;
+    }
+
+    /**
+     * Gives the SHA-256 hash of a resource.
+     *
+     * @param path the path of the resource.
+     * @return the hash, or null if there is no such resource.
+     * @throws IOException if failed reading.
+     */
+    public static byte[] hashOf(String path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("failed to hash " + path, e);
+        }
+        try (InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path)) {
+            if (is == null) {
+                return null;
+            }
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = is.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Compiles the levels into the output stream.
+     *
+     * @param path   the path of the level definitions resource of the levels.
+     * @param levels the levels.
+     * @param output the stream to write to (not closed).
+     * @throws IOException if failed reading a source or writing.
+     */
+    public void compile(String path, List<LevelFromReader> levels, OutputStream output) throws IOException {
+        // fill the tables first, they are written before the levels
+        int[][] levelTypes = new int[levels.size()][];
+        for (int i = 0; i < levels.size(); i++) {
+            LevelFromReader level = levels.get(i);
+            this.stringIndex(level.levelName());
+            this.stringIndex(level.getBackgroundDefinition());
+            List<BaseBlock> blocks = level.blocks();
+            levelTypes[i] = new int[blocks.size()];
+            for (int j = 0; j < blocks.size(); j++) {
+                levelTypes[i][j] = this.typeIndex(blocks.get(j));
+            }
+        }
+
+        // the body is written first, the header has its checksum
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+
+        // the sources, so the reader knows when the file is out of date
+        Set<String> sources = new LinkedHashSet<>();
+        sources.add(path);
+        for (LevelFromReader level : levels) {
+            sources.add(level.getBlockDefinitionsPath());
+        }
+        out.writeInt(sources.size());
+        for (String source : sources) {
+            byte[] hash = hashOf(source);
+            if (hash == null) {
+                throw new IOException("failed to find " + source);
+            }
+            byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.write(hash);
+        }
+
+        out.writeInt(this.strings.size());
+        for (String string : this.strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        out.writeInt(this.colors.size());
+        for (Color color : this.colors) {
+            out.writeInt(color.getRGB());
+        }
+        out.writeInt(this.types.size());
+        for (int[] type : this.types) {
+            for (int value : type) {
+                out.writeInt(value);
+            }
+        }
+
+        out.writeInt(levels.size());
+        for (int i = 0; i < levels.size(); i++) {
+            LevelFromReader level = levels.get(i);
+            out.writeInt(this.stringIndex(level.levelName()));
+            out.writeInt(level.paddleSpeed());
+            out.writeInt(level.paddleWidth());
+            out.writeInt(level.numberOfBlocksToRemove());
+            out.writeInt(level.rowHeight());
+            out.writeInt(level.xPosBlocks());
+            out.writeInt(level.yPosBlocks());
+            out.writeInt(this.stringIndex(level.getBackgroundDefinition()));
+            out.writeInt(level.initialBallVelocities().size());
+            for (Velocity velocity : level.initialBallVelocities()) {
+                out.writeDouble(velocity.getDx());
+                out.writeDouble(velocity.getDy());
+            }
+            // the blocks as three arrays
+            List<BaseBlock> blocks = level.blocks();
+            out.writeInt(blocks.size());
+            for (int type : levelTypes[i]) {
+                out.writeInt(type);
+            }
+            for (BaseBlock block : blocks) {
+                out.writeInt((int) block.getCollisionRectangle().getUpperLeft().getX());
+            }
+            for (BaseBlock block : blocks) {
+                out.writeInt((int) block.getCollisionRectangle().getUpperLeft().getY());
+            }
+        }
+
+        byte[] bytes = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        DataOutputStream file = new DataOutputStream(output);
+        file.writeInt(MAGIC);
+        file.writeInt(VERSION);
+        file.writeInt((int) crc.getValue());
+        file.write(bytes);
+        file.flush();
+    }
+
+    /**
+     * Gives the index of the string in the strings table, adding it if new.
+     *
+     * @param string the string.
+     * @return the index of the string, -1 for null.
+     */
+    private int stringIndex(String string) {
+        if (string == null) {
+            return -1;
+        }
+        Integer index = this.stringIndexes.get(string);
+        if (index == null) {
+            index = this.strings.size();
+            this.strings.add(string);
+            this.stringIndexes.put(string, index);
+        }
+        return index;
+    }
+
+    /**
+     * Gives the index of the color in the colors table, adding it if new.
+     *
+     * @param color the color.
+     * @return the index of the color, -1 for null.
+     */
+    private int colorIndex(Color color) {
+        if (color == null) {
+            return -1;
+        }
+        Integer index = this.colorIndexes.get(color);
+        if (index == null) {
+            index = this.colors.size();
+            this.colors.add(color);
+            this.colorIndexes.put(color, index);
+        }
+        return index;
+    }
+
+    /**
+     * Gives the index of the block's type in the types table, adding it if
+     * new. Blocks with the same size, hit points, stroke and fills share
+     * one type.
+     *
+     * @param block the block.
+     * @return the index of the block's type.
+     */
+    private int typeIndex(BaseBlock block) {
+        if (!(block instanceof ColorsImagesBlock)) {
+            throw new RuntimeException("failed compiling block " + block + ", only definitions blocks are supported");
+        }
+        ColorsImagesBlock definition = (ColorsImagesBlock) block;
+        List<Integer> type = new ArrayList<>(Arrays.asList(definition.getWidth(), definition.getHeight(),
+                definition.getHitPoints(), this.colorIndex(definition.getStrokeColor())));
+        // in the order of k, so equal maps give equal types
+        Map<Integer, Color> fillColors = new TreeMap<>(definition.getFillColors());
+        type.add(fillColors.size());
+        for (Map.Entry<Integer, Color> fill : fillColors.entrySet()) {
+            type.add(fill.getKey());
+            type.add(this.colorIndex(fill.getValue()));
+        }
+        Map<Integer, LazyImage> fillImages = new TreeMap<>(definition.getFillImages());
+        type.add(fillImages.size());
+        for (Map.Entry<Integer, LazyImage> fill : fillImages.entrySet()) {
+            type.add(fill.getKey());
+            type.add(this.stringIndex(fill.getValue().getPath()));
+        }
+
+        Integer index = this.typeIndexes.get(type);
+        if (index == null) {
+            index = this.types.size();
+            int[] values = new int[type.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = type.get(i);
+            }
+            this.types.add(values);
+            this.typeIndexes.put(type, index);
+        }
+        return index;
+    }
+}
@@ -1,15 +1,23 @@
 package levels;
 
+import creators.BlockCreator;
+import general.LazyImage;
 import geometry.Velocity;
 import sprites.Sprite;
 import sprites.blocks.BaseBlock;
 
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * LevelFromReader class.
+ * <p>
+ * Keeps the creator and position of every block, so every call of blocks
+ * creates new blocks and the level can be played again.
  */
 public class LevelFromReader implements LevelInformation {
     private List<Velocity> velocities;
@@ -19,27 +27,33 @@ public class LevelFromReader implements LevelInformation {
     private int numBlocks;
     private int numBalls;
     private Sprite background;
+    private String backgroundDefinition;
     private int xPosBlocks;
     private int yPosBlocks;
     private int rowHeight;
-    private InputStreamReader blocksDefinitionsFile;
-    private List<BaseBlock> blocks;
+    private String blockDefinitionsPath;
+    private List<BlockCreator> blockCreators;
+    private List<int[]> blockPositions;
 
     /**
      * Constructs a LevelFromReader.
      */
     public LevelFromReader() {
         this.velocities = new ArrayList<>();
-        this.blocks = new ArrayList<>();
+        this.blockCreators = new ArrayList<>();
+        this.blockPositions = new ArrayList<>();
     }
 
     /**
      * Adds a block.
      *
-     * @param block the block to add.
+     * @param creator the creator of the block.
+     * @param xPos    the x position of the block.
+     * @param yPos    the y position of the block.
      */
-    public void addBlock(BaseBlock block) {
-        this.blocks.add(block);
+    public void addBlock(BlockCreator creator, int xPos, int yPos) {
+        this.blockCreators.add(creator);
+        this.blockPositions.add(new int[]{xPos, yPos});
     }
 
     /**
@@ -60,6 +74,24 @@ public class LevelFromReader implements LevelInformation {
         this.background = newBackground;
     }
 
+    /**
+     * Sets the definition the background was made from, like "image(x.jpg)".
+     *
+     * @param newBackgroundDefinition the background definition.
+     */
+    public void setBackgroundDefinition(String newBackgroundDefinition) {
+        this.backgroundDefinition = newBackgroundDefinition;
+    }
+
+    /**
+     * Gives the definition the background was made from.
+     *
+     * @return the background definition, null if none.
+     */
+    public String getBackgroundDefinition() {
+        return this.backgroundDefinition;
+    }
+
     /**
      * Sets paddles speed.
      *
@@ -87,15 +119,6 @@ public class LevelFromReader implements LevelInformation {
         this.yPosBlocks = yPos;
     }
 
-    /**
-     * Sets the blocks list.
-     *
-     * @param newBlocks the new blocks list.
-     */
-    public void setBlocks(List<BaseBlock> newBlocks) {
-        this.blocks = newBlocks;
-    }
-
     /**
      * Sets the num of the blocks.
      *
@@ -134,12 +157,21 @@ public class LevelFromReader implements LevelInformation {
     }
 
     /**
-     * Sets setBlocksDefinitionsFile.
+     * Sets the resource path of the blocks definitions file.
+     *
+     * @param newBlockDefinitionsPath the new blocks definitions path.
+     */
+    public void setBlockDefinitionsPath(String newBlockDefinitionsPath) {
+        this.blockDefinitionsPath = newBlockDefinitionsPath;
+    }
+
+    /**
+     * Gives the resource path of the blocks definitions file.
      *
-     * @param newBlocksDefinitionsFile the new blocks definitions file.
+     * @return the blocks definitions path.
      */
-    public void setBlocksDefinitionsFile(InputStreamReader newBlocksDefinitionsFile) {
-        this.blocksDefinitionsFile = newBlocksDefinitionsFile;
+    public String getBlockDefinitionsPath() {
+        return this.blockDefinitionsPath;
     }
 
     /**
@@ -168,7 +200,26 @@ public class LevelFromReader implements LevelInformation {
      */
     @Override
     public List<BaseBlock> blocks() {
-        return this.blocks;
+        List<BaseBlock> blocks = new ArrayList<>(this.blockCreators.size());
+        for (int i = 0; i < this.blockCreators.size(); i++) {
+            int[] position = this.blockPositions.get(i);
+            blocks.add(this.blockCreators.get(i).create(position[0], position[1]));
+        }
+        return blocks;
+    }
+
+    /**
+     * Gives the images of the blocks, each once.
+     *
+     * @return the images of the blocks.
+     */
+    @Override
+    public List<LazyImage> blockImages() {
+        Set<LazyImage> images = new LinkedHashSet<>();
+        for (BlockCreator creator : new LinkedHashSet<>(this.blockCreators)) {
+            images.addAll(creator.getImages());
+        }
+        return new ArrayList<>(images);
     }
 
     /**
@@ -232,13 +283,17 @@ public class LevelFromReader implements LevelInformation {
     }
 
     /**
-     * Gives block definition file.
+     * Gives block definition file, opened anew on every call.
      *
-     * @return block definition file.
+     * @return block definition file, null if the level has none.
      */
     @Override
     public InputStreamReader blockDefinitionsFile() {
-        return this.blocksDefinitionsFile;
+        if (this.blockDefinitionsPath == null) {
+            return null;
+        }
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(this.blockDefinitionsPath);
+        return is == null ? null : new InputStreamReader(is);
     }
 
     /**
@@ -260,4 +315,14 @@ public class LevelFromReader implements LevelInformation {
     public int yPosBlocks() {
         return this.yPosBlocks;
     }
+
+    /**
+     * Gives the height of a row of blocks.
+     *
+     * @return the height of a row of blocks.
+     */
+    @Override
+    public int rowHeight() {
+        return this.rowHeight;
+    }
 }
\ No newline at end of file
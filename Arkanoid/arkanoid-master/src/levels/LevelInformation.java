@@ -1,5 +1,6 @@
 package levels;
 
+import general.LazyImage;
 import geometry.Velocity;
 import sprites.blocks.BaseBlock;
 import sprites.Sprite;
@@ -41,12 +42,21 @@ public interface LevelInformation {
     Sprite getBackground();
 
     /**
-     * Gives the regular blocks of the level as a list.
+     * Gives the regular blocks of the level as a list, new blocks on every
+     * call so the blocks of one game are never shared with another.
      *
      * @return the regular blocks of the level as a list.
      */
     List<BaseBlock> blocks();
 
+    /**
+     * Gives the images the blocks of the level are filled with, each once,
+     * without making the blocks.
+     *
+     * @return the images of the blocks.
+     */
+    List<LazyImage> blockImages();
+
     /**
      * Gives the number of the block to remove.
      *
@@ -88,4 +98,11 @@ public interface LevelInformation {
      * @return the y position of the blocks.
      */
     int yPosBlocks();
+
+    /**
+     * Gives the height of a row of blocks.
+     *
+     * @return the height of a row of blocks.
+     */
+    int rowHeight();
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package levels;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+
+/**
+ * LevelLoader class.
+ * <p>
+ * Loads the levels of a level definitions resource, from its compiled
+ * file if there is one next to it (see LevelCompiler), and else from the
+ * text. A compiled file that fails to load, or is out of date with the
+ * text or its block definitions, is skipped for the text.
+ */
+public class LevelLoader {
+
+    /**
+     * Loads the levels of a level definitions resource.
+     *
+     * @param path the path of the level definitions resource.
+     * @return the levels.
+     */
+    public static List<? extends LevelInformation> load(String path) {
+        List<CompiledLevel> compiled = compiled(path);
+        if (compiled != null) {
+            return compiled;
+        }
+        return loadText(path);
+    }
+
+    /**
+     * Gives a source of the levels of a level definitions resource, that
+     * loads every level only when it is reached: the compiled levels if
+     * there are, and else the levels of the text.
+     *
+     * @param path the path of the level definitions resource.
+     * @return the source of the levels.
+     */
+    public static LevelSource source(String path) {
+        List<CompiledLevel> compiled = compiled(path);
+        if (compiled != null) {
+            return new ListLevelSource(compiled);
+        }
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            throw new RuntimeException("failed to find the levels " + path);
+        }
+        try {
+            return LazyLevelSource.fromReader(new InputStreamReader(is));
+        } catch (IOException e) {
+            throw new RuntimeException("failed to load the levels " + path);
+        }
+    }
+
+    /**
+     * Loads the compiled levels of a level definitions resource. A compiled
+     * file that fails to load is skipped with a warning, so the text is
+     * loaded instead.
+     *
+     * @param path the path of the level definitions resource.
+     * @return the compiled levels, or null if there are none to use.
+     */
+    private static List<CompiledLevel> compiled(String path) {
+        String compiledPath = LevelCompiler.compiledPath(path);
+        try {
+            return CompiledLevelReader.fromResource(compiledPath);
+        } catch (IOException e) {
+            System.out.println("failed loading compiled levels: " + compiledPath + " (" + e.getMessage()
+                    + "), loading the text");
+            return null;
+        }
+    }
+
+    /**
+     * Loads the levels of a level definitions resource from the text.
+     *
+     * @param path the path of the level definitions resource.
+     * @return the levels.
+     */
+    public static List<LevelFromReader> loadText(String path) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            throw new RuntimeException("failed to find the levels " + path);
+        }
+        try {
+            return LevelSpecificationReader.fromReader(new InputStreamReader(is));
+        } catch (IOException e) {
+            throw new RuntimeException("failed to load the levels " + path);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package levels;
+
+/**
+ * LevelSource interface.
+ * <p>
+ * The levels of a level set, given one at a time, so a level can be
+ * loaded only when it is reached.
+ */
+public interface LevelSource {
+
+    /**
+     * Gives the number of levels.
+     *
+     * @return the number of levels.
+     */
+    int size();
+
+    /**
+     * Gives the level of the given index, loading it if needed.
+     *
+     * @param index the index of the level.
+     * @return the level.
+     */
+    LevelInformation get(int index);
+}
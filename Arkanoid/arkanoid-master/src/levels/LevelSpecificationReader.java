@@ -1,16 +1,14 @@
 package levels;
 
-import creators.BlocksDefinitionReader;
+import creators.BlockCreator;
+import creators.BlockDefinitionsCache;
 import creators.BlocksFromSymbolsFactory;
 import general.Utils;
 import geometry.Velocity;
-import sprites.blocks.BaseBlock;
 
 import java.io.Reader;
-import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -56,9 +54,9 @@ public class LevelSpecificationReader {
 
                             // init yPos to the start x of blocks
                             yPos = curLevel.yPosBlocks();
-                            // factory of the blocks according to blocks definitions file
+                            // factory of the blocks according to blocks definitions file, parsed once
                             BlocksFromSymbolsFactory blocksFactory
-                                    = BlocksDefinitionReader.fromReader(curLevel.blockDefinitionsFile());
+                                    = BlockDefinitionsCache.shared().get(curLevel.getBlockDefinitionsPath());
 
                             while (!line.equals("END_BLOCKS")) {
                                 line = lineReader.readLine().trim();
@@ -74,10 +72,10 @@ public class LevelSpecificationReader {
                                     // case block
                                     if (blocksFactory.isBlockSymbol(symbol)) {
                                         // add block according to factory
-                                        BaseBlock block = blocksFactory.getBlock(symbol, xPos, yPos);
-                                        curLevel.addBlock(block);
+                                        BlockCreator creator = blocksFactory.getCreator(symbol);
+                                        curLevel.addBlock(creator, xPos, yPos);
                                         // add blocks width to xPos
-                                        xPos += block.getWidth();
+                                        xPos += creator.getWidth();
                                         // case space
                                     } else if (blocksFactory.isSpaceSymbol(symbol)) {
                                         // add spaces width to xPos
@@ -110,6 +108,7 @@ public class LevelSpecificationReader {
                                     break;
                                 case "background":
                                     curLevel.setBackground(Utils.parseBackground(value));
+                                    curLevel.setBackgroundDefinition(value);
                                     break;
                                 case "paddle_speed":
                                     curLevel.setPaddleSpeed(Integer.parseInt(value));
@@ -118,8 +117,7 @@ public class LevelSpecificationReader {
                                     curLevel.setPaddleWidth(Integer.parseInt(value));
                                     break;
                                 case "block_definitions":
-                                    InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(value);
-                                    curLevel.setBlocksDefinitionsFile(new InputStreamReader(is));
+                                    curLevel.setBlockDefinitionsPath(value);
                                     break;
                                 case "blocks_start_x":
                                     curLevel.setxPosBlocks(Integer.parseInt(value));
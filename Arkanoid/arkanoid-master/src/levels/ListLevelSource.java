@@ -0,0 +1,42 @@
+package levels;
+
+import java.util.List;
+
+/**
+ * ListLevelSource class.
+ * <p>
+ * A level source of levels that are already loaded.
+ */
+public class ListLevelSource implements LevelSource {
+    private List<? extends LevelInformation> levels;
+
+    /**
+     * Constructs a source of the given levels.
+     *
+     * @param levels the levels.
+     */
+    public ListLevelSource(List<? extends LevelInformation> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Gives the number of levels.
+     *
+     * @return the number of levels.
+     */
+    @Override
+    public int size() {
+        return this.levels.size();
+    }
+
+    /**
+     * Gives the level of the given index.
+     *
+     * @param index the index of the level.
+     * @return the level.
+     */
+    @Override
+    public LevelInformation get(int index) {
+        return this.levels.get(index);
+    }
+}
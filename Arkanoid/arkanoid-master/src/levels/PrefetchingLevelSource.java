@@ -0,0 +1,113 @@
+package levels;
+
+import general.LazyImage;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * PrefetchingLevelSource class.
+ * <p>
+ * Wraps a level source, and whenever a level is given, prepares the next
+ * one on a worker thread: the level is loaded, its background is made and
+ * the images of its blocks are decoded. So when the level is
+ * reached it is handed over ready, and only the cheap GameLevel setup is
+ * left for the game thread.
+ * A prefetched level is only touched by the worker until it is handed
+ * over, so the levels don't have to be thread safe.
+ */
+public class PrefetchingLevelSource implements LevelSource {
+    private LevelSource source;
+    private int nextIndex;
+    private FutureTask<LevelInformation> next;
+
+    /**
+     * Constructs a prefetching source of the given source.
+     *
+     * @param source the source to load the levels from.
+     */
+    public PrefetchingLevelSource(LevelSource source) {
+        this.source = source;
+        this.nextIndex = -1;
+    }
+
+    /**
+     * Gives the number of levels.
+     *
+     * @return the number of levels.
+     */
+    @Override
+    public int size() {
+        return this.source.size();
+    }
+
+    /**
+     * Gives the prepared level of the given index, waiting for the worker
+     * if it is still preparing it, and starts preparing the next one.
+     *
+     * @param index the index of the level.
+     * @return the prepared level.
+     */
+    @Override
+    public LevelInformation get(int index) {
+        LevelInformation level;
+        if (this.next != null && this.nextIndex == index) {
+            level = this.await(this.next, index);
+        } else {
+            level = prepare(this.source.get(index));
+        }
+        this.next = null;
+        if (index + 1 < this.source.size()) {
+            this.prefetch(index + 1);
+        }
+        return level;
+    }
+
+    /**
+     * Makes everything of the level that is made lazily: the background
+     * and the images of the blocks (the blocks themselves are new for every
+     * game, so are not made here).
+     *
+     * @param level the level.
+     * @return the same level, prepared.
+     */
+    public static LevelInformation prepare(LevelInformation level) {
+        level.getBackground();
+        for (LazyImage image : level.blockImages()) {
+            image.get();
+        }
+        return level;
+    }
+
+    /**
+     * Starts preparing the level of the given index on a worker thread.
+     *
+     * @param index the index of the level.
+     */
+    private void prefetch(int index) {
+        this.nextIndex = index;
+        this.next = new FutureTask<>(() -> prepare(this.source.get(index)));
+        Thread worker = new Thread(this.next, "level-prefetch-" + index);
+        // never keeps the game alive after it is closed
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Waits for the worker to prepare the level.
+     *
+     * @param task  the task of the worker.
+     * @param index the index of the level.
+     * @return the prepared level.
+     */
+    private LevelInformation await(FutureTask<LevelInformation> task, int index) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while loading level " + index);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("failed to load level " + index, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package listeners;
+
+import general.Counter;
+
+/**
+ * CounterListener interface.
+ */
+public interface CounterListener {
+
+    /**
+     * Called after the value of the counter changed.
+     *
+     * @param counter the changed counter.
+     */
+    void counterChanged(Counter counter);
+}
@@ -0,0 +1,324 @@
+package replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Replay class.
+ * <p>
+ * A recorded game: the seed of its random numbers, the level set it was
+ * played on, and the keys pressed at every step that read the keyboard.
+ * The pressed keys of a step are kept as a mask of bits over a table of
+ * the keys, and equal masks in a row are kept once with their count, so a
+ * game where the keys change a few times a second takes a few KB.
+ * Saved in a small binary file: a header (magic, version, seed and level
+ * set), the keys table, the runs of masks, and a CRC32 of all that.
+ */
+public class Replay {
+    /**
+     * The first int of a replay file, "ARKR".
+     */
+    public static final int MAGIC = 0x41524B52;
+    /**
+     * The version of the replay file format.
+     */
+    public static final int VERSION = 1;
+    /**
+     * The most keys a replay can tell apart, the bits of a mask.
+     */
+    public static final int MAX_KEYS = Long.SIZE;
+    /**
+     * The most steps a replay can have, a day of steps at 240 a second.
+     */
+    public static final int MAX_STEPS = 24 * 60 * 60 * 240;
+    private long seed;
+    private String levelSetKey;
+    private String levelSetPath;
+    private List<String> keys;
+    private long[] masks;
+    private int[] counts;
+    private int runs;
+    private int steps;
+
+    /**
+     * Constructs an empty replay.
+     *
+     * @param seed         the seed of the random numbers of the game.
+     * @param levelSetKey  the key of the level set.
+     * @param levelSetPath the path of the level definitions of the level set.
+     */
+    public Replay(long seed, String levelSetKey, String levelSetPath) {
+        this.seed = seed;
+        this.levelSetKey = levelSetKey;
+        this.levelSetPath = levelSetPath;
+        this.keys = new ArrayList<>();
+        this.masks = new long[16];
+        this.counts = new int[16];
+        this.runs = 0;
+        this.steps = 0;
+    }
+
+    /**
+     * Gives the seed of the random numbers of the game.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Gives the key of the level set.
+     *
+     * @return the key of the level set.
+     */
+    public String getLevelSetKey() {
+        return this.levelSetKey;
+    }
+
+    /**
+     * Gives the path of the level definitions of the level set.
+     *
+     * @return the path.
+     */
+    public String getLevelSetPath() {
+        return this.levelSetPath;
+    }
+
+    /**
+     * Gives the index of a key in the keys table, adding it if it's new.
+     *
+     * @param key the key.
+     * @return the index, the bit of the key in the masks.
+     */
+    public int keyIndex(String key) {
+        int index = this.keys.indexOf(key);
+        if (index != -1) {
+            return index;
+        }
+        if (this.keys.size() == MAX_KEYS) {
+            throw new RuntimeException("failed recording key " + key + ", too many keys");
+        }
+        this.keys.add(key);
+        return this.keys.size() - 1;
+    }
+
+    /**
+     * Gives the index of a key in the keys table.
+     *
+     * @param key the key.
+     * @return the index, -1 if the key was never read.
+     */
+    public int findKey(String key) {
+        return this.keys.indexOf(key);
+    }
+
+    /**
+     * Gives the number of the keys in the keys table.
+     *
+     * @return the number of the keys.
+     */
+    public int keyCount() {
+        return this.keys.size();
+    }
+
+    /**
+     * Gives a key of the keys table.
+     *
+     * @param index the index of the key.
+     * @return the key.
+     */
+    public String keyAt(int index) {
+        return this.keys.get(index);
+    }
+
+    /**
+     * Adds a step to the end.
+     *
+     * @param mask the pressed keys, bit i for key i.
+     */
+    public void addStep(long mask) {
+        this.addSteps(mask, 1);
+    }
+
+    /**
+     * Adds steps with the same keys to the end.
+     *
+     * @param mask  the pressed keys, bit i for key i.
+     * @param count the number of the steps.
+     */
+    private void addSteps(long mask, int count) {
+        if (this.steps > MAX_STEPS - count) {
+            throw new RuntimeException("failed recording step, too many steps");
+        }
+        if (this.runs > 0 && this.masks[this.runs - 1] == mask) {
+            this.counts[this.runs - 1] += count;
+        } else {
+            if (this.runs == this.masks.length) {
+                this.masks = Arrays.copyOf(this.masks, this.runs * 2);
+                this.counts = Arrays.copyOf(this.counts, this.runs * 2);
+            }
+            this.masks[this.runs] = mask;
+            this.counts[this.runs] = count;
+            this.runs++;
+        }
+        this.steps += count;
+    }
+
+    /**
+     * Gives the number of the steps.
+     *
+     * @return the number of the steps.
+     */
+    public int steps() {
+        return this.steps;
+    }
+
+    /**
+     * Gives the number of the runs of equal masks.
+     *
+     * @return the number of the runs.
+     */
+    public int runs() {
+        return this.runs;
+    }
+
+    /**
+     * Gives the mask of a run.
+     *
+     * @param run the index of the run.
+     * @return the mask of the run.
+     */
+    public long runMask(int run) {
+        return this.masks[run];
+    }
+
+    /**
+     * Gives the number of the steps of a run.
+     *
+     * @param run the index of the run.
+     * @return the number of the steps.
+     */
+    public int runLength(int run) {
+        return this.counts[run];
+    }
+
+    /**
+     * Gives the replay in the replay file format.
+     *
+     * @return the bytes of the file.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(this.seed);
+            out.writeUTF(this.levelSetKey);
+            out.writeUTF(this.levelSetPath);
+            out.writeInt(this.keys.size());
+            for (String key : this.keys) {
+                out.writeUTF(key);
+            }
+            out.writeInt(this.runs);
+            for (int i = 0; i < this.runs; i++) {
+                out.writeLong(this.masks[i]);
+                out.writeInt(this.counts[i]);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new RuntimeException("failed writing replay", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a replay in the replay file format.
+     *
+     * @param bytes the bytes of the file.
+     * @return the replay.
+     * @throws IOException if not a valid replay file, or corrupted.
+     */
+    public static Replay fromBytes(byte[] bytes) throws IOException {
+        if (bytes.length < 2 * Integer.BYTES + Integer.BYTES) {
+            throw new IOException("not a replay file");
+        }
+        // check the whole file before trusting any count in it
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Integer.BYTES);
+        if (ByteBuffer.wrap(bytes, bytes.length - Integer.BYTES, Integer.BYTES).getInt() != (int) crc.getValue()) {
+            throw new IOException("corrupted replay file");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Integer.BYTES));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a replay file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported replay file version " + version);
+        }
+        long seed = in.readLong();
+        String key = in.readUTF();
+        Replay replay = new Replay(seed, key, in.readUTF());
+        int keys = in.readInt();
+        if (keys < 0 || keys > MAX_KEYS) {
+            throw new IOException("corrupted replay file");
+        }
+        for (int count = keys; count > 0; count--) {
+            replay.keyIndex(in.readUTF());
+        }
+        int runs = in.readInt();
+        // a run takes a mask and a count
+        if (runs < 0 || runs > in.available() / (Long.BYTES + Integer.BYTES)) {
+            throw new IOException("corrupted replay file");
+        }
+        for (int count = runs; count > 0; count--) {
+            long mask = in.readLong();
+            int steps = in.readInt();
+            if (steps <= 0 || steps > MAX_STEPS - replay.steps) {
+                throw new IOException("corrupted replay file");
+            }
+            replay.addSteps(mask, steps);
+        }
+        return replay;
+    }
+
+    /**
+     * Saves the replay to a file.
+     *
+     * @param file the file.
+     */
+    public void save(File file) {
+        try {
+            Files.write(file.toPath(), this.toBytes());
+        } catch (IOException e) {
+            throw new RuntimeException("failed saving replay to file: " + file, e);
+        }
+    }
+
+    /**
+     * Loads a replay from a file.
+     *
+     * @param file the file.
+     * @return the replay.
+     */
+    public static Replay load(File file) {
+        try {
+            return fromBytes(Files.readAllBytes(file.toPath()));
+        } catch (IOException e) {
+            throw new RuntimeException("failed loading replay from file: " + file, e);
+        }
+    }
+}
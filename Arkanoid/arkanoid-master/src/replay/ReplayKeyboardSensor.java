@@ -0,0 +1,95 @@
+package replay;
+
+import animation.StepListener;
+import biuoop.KeyboardSensor;
+
+/**
+ * ReplayKeyboardSensor class.
+ * <p>
+ * A keyboard that plays a Replay back. Like the recorder, it moves to the
+ * next recorded step when a step first reads a key, so it stays in time
+ * with the game whether or not the steps that never read a key (like the
+ * countdown) run. After the last recorded step no key is pressed.
+ */
+public class ReplayKeyboardSensor implements KeyboardSensor, StepListener {
+    private Replay replay;
+    private boolean stepStarted;
+    private int run;
+    private int stepInRun;
+    private int step;
+    private long mask;
+
+    /**
+     * Constructs a keyboard that plays the given replay.
+     *
+     * @param replay the replay.
+     */
+    public ReplayKeyboardSensor(Replay replay) {
+        this.replay = replay;
+        this.stepStarted = false;
+        // before the first step
+        this.run = 0;
+        this.stepInRun = -1;
+        this.step = 0;
+        this.mask = 0;
+    }
+
+    /**
+     * Marks that a step begins, the next read moves to the next recorded step.
+     */
+    @Override
+    public void beforeStep() {
+        this.stepStarted = true;
+    }
+
+    /**
+     * Tells if the key is pressed in the current recorded step.
+     *
+     * @param key the key.
+     * @return true if the key was pressed in the recorded step, else false.
+     */
+    @Override
+    public boolean isPressed(String key) {
+        if (this.stepStarted) {
+            this.nextStep();
+        }
+        int index = this.replay.findKey(key);
+        return index != -1 && (this.mask & (1L << index)) != 0;
+    }
+
+    /**
+     * Gives the number of the recorded steps played.
+     *
+     * @return the number of the played steps.
+     */
+    public int getStep() {
+        return this.step;
+    }
+
+    /**
+     * Tells if all the recorded steps were played.
+     *
+     * @return true if the replay ended, else false.
+     */
+    public boolean isFinished() {
+        return this.step >= this.replay.steps();
+    }
+
+    /**
+     * Moves to the next recorded step.
+     */
+    private void nextStep() {
+        this.stepStarted = false;
+        if (this.isFinished()) {
+            this.mask = 0;
+            return;
+        }
+        this.stepInRun++;
+        if (this.stepInRun >= this.replay.runLength(this.run)) {
+            this.run++;
+            this.stepInRun = 0;
+        }
+        this.mask = this.replay.runMask(this.run);
+        this.step++;
+    }
+}
@@ -0,0 +1,100 @@
+package replay;
+
+import animation.StepListener;
+import biuoop.KeyboardSensor;
+
+/**
+ * ReplayRecorder class.
+ * <p>
+ * A keyboard that records a game into a Replay. It reads the real keyboard
+ * once per step, when the step first reads a key, and answers the whole
+ * step from that snapshot, so the game sees exactly what is recorded.
+ * Steps that never read a key (like the countdown, that a headless run
+ * skips) are not recorded, so a replay plays the same with or without a
+ * window.
+ */
+public class ReplayRecorder implements KeyboardSensor, StepListener {
+    private KeyboardSensor keyboard;
+    private Replay replay;
+    private boolean stepStarted;
+    private boolean hasStep;
+    private long mask;
+
+    /**
+     * Constructs a recorder of the given keyboard.
+     *
+     * @param keyboard the real keyboard.
+     * @param replay   the replay to record into.
+     */
+    public ReplayRecorder(KeyboardSensor keyboard, Replay replay) {
+        this.keyboard = keyboard;
+        this.replay = replay;
+        this.stepStarted = false;
+        this.hasStep = false;
+        this.mask = 0;
+    }
+
+    /**
+     * Marks that a step begins, the next read takes a new snapshot.
+     */
+    @Override
+    public void beforeStep() {
+        this.stepStarted = true;
+    }
+
+    /**
+     * Tells if the key was pressed when the step first read the keyboard.
+     *
+     * @param key the key.
+     * @return true if the key is pressed in this step, else false.
+     */
+    @Override
+    public boolean isPressed(String key) {
+        if (this.stepStarted) {
+            this.takeSnapshot();
+        }
+        if (!this.hasStep) {
+            // read before any step of the runner, not part of the game
+            return false;
+        }
+        int index = this.replay.findKey(key);
+        if (index == -1) {
+            // a key read for the first time, in all the next snapshots from now
+            index = this.replay.keyIndex(key);
+            if (this.keyboard.isPressed(key)) {
+                this.mask |= 1L << index;
+            }
+        }
+        return (this.mask & (1L << index)) != 0;
+    }
+
+    /**
+     * Ends the recording, adding the last step.
+     *
+     * @return the recorded replay.
+     */
+    public Replay finish() {
+        if (this.hasStep) {
+            this.replay.addStep(this.mask);
+            this.hasStep = false;
+        }
+        return this.replay;
+    }
+
+    /**
+     * Adds the snapshot of the last step and takes one of the known keys.
+     */
+    private void takeSnapshot() {
+        if (this.hasStep) {
+            this.replay.addStep(this.mask);
+        }
+        this.mask = 0;
+        for (int i = 0; i < this.replay.keyCount(); i++) {
+            if (this.keyboard.isPressed(this.replay.keyAt(i))) {
+                this.mask |= 1L << i;
+            }
+        }
+        this.hasStep = true;
+        this.stepStarted = false;
+    }
+}
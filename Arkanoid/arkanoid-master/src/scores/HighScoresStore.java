@@ -0,0 +1,134 @@
+package scores;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * HighScoresStore class.
+ * <p>
+ * Keeps the one leaderboard of the game in memory, loaded once, and
+ * serves every read from it. Changes are saved by a background writer:
+ * the leaderboard is encoded on the caller thread, and only the disk write
+ * happens on the writer. Changes made while a write is still waiting are
+ * coalesced into one write of the latest leaderboard.
+ * Pending writes are flushed when the game exits.
+ */
+public class HighScoresStore {
+    private File file;
+    private Leaderboard leaderboard;
+    private AtomicReference<byte[]> pending;
+    private ExecutorService writer;
+
+    /**
+     * Constructs a store of the given leaderboard, saved to the given file.
+     *
+     * @param file        the scores file.
+     * @param leaderboard the loaded leaderboard.
+     */
+    public HighScoresStore(File file, Leaderboard leaderboard) {
+        this.file = file;
+        this.leaderboard = leaderboard;
+        this.pending = new AtomicReference<>();
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "scores-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "scores-flush"));
+    }
+
+    /**
+     * Loads the store of a scores file, migrating a file of the old format
+     * if there is no scores file yet (the old file is kept).
+     *
+     * @param file       the scores file.
+     * @param legacyFile the scores file of the old, serialized, format.
+     * @param retention  the most scores kept for every level set.
+     * @return the store.
+     */
+    public static HighScoresStore open(File file, File legacyFile, int retention) {
+        if (!file.exists() && legacyFile.exists()) {
+            Leaderboard leaderboard = new Leaderboard(retention);
+            if (leaderboard.addLegacyFile(legacyFile)) {
+                HighScoresStore store = new HighScoresStore(file, leaderboard);
+                store.scheduleSave();
+                return store;
+            }
+        }
+        return new HighScoresStore(file, Leaderboard.loadFromFile(file, retention));
+    }
+
+    /**
+     * Gives the leaderboard, it is changed only through the store.
+     *
+     * @return the leaderboard.
+     */
+    public Leaderboard getLeaderboard() {
+        return this.leaderboard;
+    }
+
+    /**
+     * Gives the table of a level set, it is changed only through the store.
+     *
+     * @param key the key of the level set.
+     * @return the table.
+     */
+    public HighScoresTable getTable(String key) {
+        return this.leaderboard.getTable(key);
+    }
+
+    /**
+     * Adds a score to the table of a level set and saves it in the
+     * background.
+     *
+     * @param key   the key of the level set.
+     * @param score the score.
+     */
+    public void add(String key, ScoreInfo score) {
+        this.leaderboard.getTable(key).add(score);
+        this.scheduleSave();
+    }
+
+    /**
+     * Waits until all the changes are saved.
+     */
+    public void flush() {
+        try {
+            // the writer runs in order, so the empty task ends after all the writes
+            this.writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("failed flushing scores to file: " + this.file);
+        }
+    }
+
+    /**
+     * Encodes the leaderboard and, unless a write is already waiting (that
+     * will then write this one instead), starts a write.
+     */
+    private void scheduleSave() {
+        if (this.pending.getAndSet(this.leaderboard.toBytes()) == null) {
+            this.writer.execute(this::write);
+        }
+    }
+
+    /**
+     * Writes the latest encoded leaderboard, on the writer thread.
+     */
+    private void write() {
+        byte[] bytes = this.pending.getAndSet(null);
+        if (bytes == null) {
+            return;
+        }
+        try {
+            Leaderboard.write(this.file, bytes);
+        } catch (IOException e) {
+            System.out.println("failed saving scores to file: " + this.file);
+        }
+    }
+}
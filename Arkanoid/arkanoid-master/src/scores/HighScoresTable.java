@@ -1,24 +1,32 @@
 package scores;
 
-import general.Utils;
-
-import java.io.ObjectOutputStream;
-import java.io.FileOutputStream;
-import java.io.FileNotFoundException;
-import java.io.Serializable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * HighScoreTable class.
+ * <p>
+ * The top scores of one level set, kept in a RankTree so adding a score
+ * and finding its rank are O(log n) however big the table is. The tables
+ * are saved together by their Leaderboard.
+ * The table is still Serializable only to migrate files of the old format.
  */
 public final class HighScoresTable implements Serializable {
-    private List<ScoreInfo> scores;
+    // the id and fields of the old serialized table, so old files can still be read
+    private static final long serialVersionUID = -836338211163955886L;
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("scores", List.class),
+            new ObjectStreamField("size", int.class)};
+    private RankTree scores;
     private int size;
 
     /**
@@ -27,9 +35,9 @@ public final class HighScoresTable implements Serializable {
      *
      * @param size the size of the scores table.
      */
-    private HighScoresTable(int size) {
+    HighScoresTable(int size) {
         this.size = size;
-        this.scores = new ArrayList<>();
+        this.scores = new RankTree();
     }
 
     /**
@@ -38,14 +46,11 @@ public final class HighScoresTable implements Serializable {
      * @param score the high score.
      */
     public void add(ScoreInfo score) {
-        this.scores.add(this.getRank(score.getScore()) - 1, score);
-
-        if (this.getRank(score.getScore()) > this.size) {
-            List<ScoreInfo> newScores = new ArrayList<>();
-            for (int i = 0; i < this.size; i++) {
-                newScores.add(scores.get(i));
-            }
-            scores = newScores;
+        this.scores.insert(score);
+
+        // keep only the top scores
+        while (this.scores.size() > this.size) {
+            this.scores.removeLast();
         }
     }
 
@@ -58,6 +63,27 @@ public final class HighScoresTable implements Serializable {
         return this.size;
     }
 
+    /**
+     * Sets the size of the scores table, dropping the scores beyond it.
+     *
+     * @param newSize the new size.
+     */
+    public void setSize(int newSize) {
+        this.size = newSize;
+        while (this.scores.size() > this.size) {
+            this.scores.removeLast();
+        }
+    }
+
+    /**
+     * Gives the number of the scores in the table.
+     *
+     * @return the number of the scores.
+     */
+    public int scoresCount() {
+        return this.scores.size();
+    }
+
     /**
      * Return the current high scores.
      * The list is sorted such that the highest
@@ -66,9 +92,19 @@ public final class HighScoresTable implements Serializable {
      * @return the scores.
      */
     public List<ScoreInfo> getHighScores() {
-        return this.scores;
+        return this.scores.list(0, this.scores.size());
     }
 
+    /**
+     * Return a page of the current high scores, highest first.
+     *
+     * @param from  the index of the first score, 0 is the highest.
+     * @param count the most scores to give.
+     * @return the scores.
+     */
+    public List<ScoreInfo> getHighScores(int from, int count) {
+        return this.scores.list(from, count);
+    }
 
     /**
      * return the rank of the current score: where will it
@@ -82,13 +118,7 @@ public final class HighScoresTable implements Serializable {
      * @return the place of the score if added to scores.
      */
     public int getRank(int score) {
-        int rank = 1;
-        for (ScoreInfo score1 : this.scores) {
-            if (score1.getScore() > score) {
-                rank++;
-            }
-        }
-        return rank;
+        return this.scores.countAbove(score) + 1;
     }
 
     /**
@@ -99,95 +129,101 @@ public final class HighScoresTable implements Serializable {
     }
 
     /**
-     * Loads table data from file.
-     * Current table data is clear.
+     * Writes the table: its size, the number of scores and the scores as
+     * name and score pairs, highest first.
+     *
+     * @param out the output.
+     * @throws IOException if failed writing.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(this.size);
+        List<ScoreInfo> list = this.getHighScores();
+        out.writeInt(list.size());
+        for (ScoreInfo score : list) {
+            out.writeUTF(score.getName());
+            out.writeInt(score.getScore());
+        }
+    }
+
+    /**
+     * Reads a table written by writeTo.
+     *
+     * @param in the input.
+     * @return the table.
+     * @throws IOException if failed reading, or the sizes are corrupted.
+     */
+    static HighScoresTable readFrom(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("corrupted scores file");
+        }
+        HighScoresTable table = new HighScoresTable(size);
+        // a score takes at least its name length and score
+        ScoreInfo[] list = new ScoreInfo[Leaderboard.readCount(in, Short.BYTES + Integer.BYTES)];
+        for (int i = 0; i < list.length; i++) {
+            String name = in.readUTF();
+            list[i] = new ScoreInfo(name, in.readInt());
+        }
+        table.addAll(list);
+        return table;
+    }
+
+    /**
+     * Reads a table saved by Java serialization in the old format.
      *
-     * @param fileName the file.
+     * @param fileName the old file.
+     * @param size     the size of the read table.
+     * @return the table, null if failed reading it.
      */
-    public void load(File fileName) {
-        ObjectInputStream objectInputStream = null;
-        try {
-            objectInputStream = new ObjectInputStream(new FileInputStream(fileName));
-            HighScoresTable table = (HighScoresTable) objectInputStream.readObject();
-            this.size = table.size();
-            Collections.copy(this.scores, table.getHighScores());
-
-        } catch (FileNotFoundException e) {
-            System.out.println("unable to find file: " + fileName);
-
-        } catch (ClassNotFoundException e) {
-            System.out.println("unable find class for object in file");
-
-        } catch (IOException e) {
-            System.out.println("failed reading object");
-
-        } finally {
-            try {
-                if (objectInputStream != null) {
-                    objectInputStream.close();
-                }
-            } catch (IOException e) {
-                System.out.println("failed closing file: " + fileName);
-            }
+    public static HighScoresTable loadLegacyFile(File fileName, int size) {
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(fileName))) {
+            HighScoresTable table = (HighScoresTable) in.readObject();
+            table.setSize(size);
+            return table;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.out.println("failed reading old scores file: " + fileName);
+            return null;
         }
     }
 
     /**
-     * Saves table data to the specified file.
+     * Adds scores listed highest first, keeping their order among equal
+     * scores.
      *
-     * @param fileName the file.
+     * @param list the scores, highest first.
      */
-    public void save(File fileName) {
-        ObjectOutputStream objectOutputStream = null;
-
-        try {
-            objectOutputStream = new ObjectOutputStream(new FileOutputStream(fileName));
-            objectOutputStream.writeObject(this);
-
-        } catch (IOException e) {
-            System.out.println("failed saving object");
-
-        } finally {
-            try {
-                if (objectOutputStream != null) {
-                    objectOutputStream.close();
-                }
-            } catch (IOException e) {
-                System.out.println("failed closing file: " + fileName);
-            }
+    private void addAll(ScoreInfo[] list) {
+        // the last added comes first among equal scores
+        for (int i = list.length - 1; i >= 0; i--) {
+            this.add(list[i]);
         }
     }
 
     /**
-     * Read a table from file and return it.
-     * If the file does not exist, or there is a problem with
-     * reading it, an empty table is returned.
+     * Reads the fields of the old serialized table.
      *
-     * @param fileName the file.
-     * @return HighScoresTable.
+     * @param in the input.
+     * @throws IOException            if failed reading.
+     * @throws ClassNotFoundException if a class of the table is missing.
      */
-    public static HighScoresTable loadFromFile(File fileName) {
-        ObjectInputStream objectInputStream = null;
-
-        try {
-            objectInputStream = new ObjectInputStream(new FileInputStream(fileName));
-            return (HighScoresTable) objectInputStream.readObject();
-
-        } catch (FileNotFoundException | ClassNotFoundException e) {
-            return new HighScoresTable(Utils.BORDER_SIZE);
-
-        } catch (IOException e) {
-            System.out.println("failed reading object");
-            return new HighScoresTable(Utils.SCORES_TABLE_SIZE);
-
-        } finally {
-            try {
-                if (objectInputStream != null) {
-                    objectInputStream.close();
-                }
-            } catch (IOException e) {
-                System.out.println("failed closing file: " + fileName);
-            }
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.size = fields.get("size", 0);
+        this.scores = new RankTree();
+        List<?> list = (List<?>) fields.get("scores", null);
+        if (list != null) {
+            this.addAll(list.toArray(new ScoreInfo[0]));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The table is not written by serialization anymore, only by its
+     * Leaderboard.
+     *
+     * @param out the output.
+     * @throws IOException always.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        throw new NotSerializableException("scores are saved by Leaderboard");
+    }
+}
@@ -0,0 +1,277 @@
+package scores;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Leaderboard class.
+ * <p>
+ * A high scores table for every level set, by the key of the level set
+ * (like "e" for Easy), each keeping up to the retention size of top scores.
+ * Saved in a small binary file: a header (magic, version, retention and
+ * number of tables), every table as its key, size and name and score pairs,
+ * and a CRC32 of all that. A save writes a temporary file next to the
+ * target, forces it to the disk and renames it over the target, so a crash
+ * leaves either the old or the new file, never a torn one. A file that
+ * fails the checksum is read as an empty leaderboard.
+ * Files of version 1, one table for all the level sets, are read into the
+ * table of DEFAULT_KEY.
+ */
+public class Leaderboard {
+    /**
+     * The first int of a scores file, "ARKS".
+     */
+    public static final int MAGIC = 0x41524B53;
+    /**
+     * The version of the scores file format.
+     */
+    public static final int VERSION = 2;
+    /**
+     * The key of the scores of no level set, like the scores of old files.
+     */
+    public static final String DEFAULT_KEY = "";
+    private int retention;
+    private Map<String, HighScoresTable> tables;
+
+    /**
+     * Constructs an empty Leaderboard.
+     *
+     * @param retention the most scores kept for every level set.
+     */
+    public Leaderboard(int retention) {
+        this.retention = retention;
+        this.tables = new LinkedHashMap<>();
+    }
+
+    /**
+     * Gives the most scores kept for every level set.
+     *
+     * @return the retention size.
+     */
+    public int getRetention() {
+        return this.retention;
+    }
+
+    /**
+     * Sets the most scores kept for every level set, dropping the scores
+     * beyond it.
+     *
+     * @param newRetention the new retention size.
+     */
+    public void setRetention(int newRetention) {
+        this.retention = newRetention;
+        for (HighScoresTable table : this.tables.values()) {
+            table.setSize(newRetention);
+        }
+    }
+
+    /**
+     * Gives the table of a level set, empty if it has no scores yet.
+     *
+     * @param key the key of the level set.
+     * @return the table.
+     */
+    public HighScoresTable getTable(String key) {
+        return this.tables.computeIfAbsent(key, k -> new HighScoresTable(this.retention));
+    }
+
+    /**
+     * Tells if a level set has scores.
+     *
+     * @param key the key of the level set.
+     * @return if the level set has scores.
+     */
+    public boolean hasScores(String key) {
+        HighScoresTable table = this.tables.get(key);
+        return table != null && table.scoresCount() > 0;
+    }
+
+    /**
+     * Gives the keys of the tables.
+     *
+     * @return the keys.
+     */
+    public List<String> keys() {
+        return new ArrayList<>(this.tables.keySet());
+    }
+
+    /**
+     * Saves the leaderboard to the specified file, replacing it atomically.
+     *
+     * @param fileName the file.
+     */
+    public void save(File fileName) {
+        try {
+            write(fileName, this.toBytes());
+        } catch (IOException e) {
+            System.out.println("failed saving scores to file: " + fileName);
+        }
+    }
+
+    /**
+     * Writes the bytes of a scores file to a temporary file and renames it
+     * over the given file.
+     *
+     * @param fileName the file.
+     * @param bytes    the bytes of the scores file.
+     * @throws IOException if failed writing, the file is then unchanged.
+     */
+    static void write(File fileName, byte[] bytes) throws IOException {
+        File temp = new File(fileName.getPath() + ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                out.write(bytes);
+                // on the disk before it replaces the old file
+                out.getFD().sync();
+            }
+            try {
+                Files.move(temp.toPath(), fileName.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), fileName.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives the leaderboard in the scores file format.
+     *
+     * @return the bytes of the file.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.retention);
+            out.writeInt(this.tables.size());
+            for (Map.Entry<String, HighScoresTable> table : this.tables.entrySet()) {
+                out.writeUTF(table.getKey());
+                table.getValue().writeTo(out);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new RuntimeException("failed writing scores", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a leaderboard in the scores file format.
+     *
+     * @param bytes     the bytes of the file.
+     * @param retention the most scores to keep for every level set.
+     * @return the leaderboard.
+     * @throws IOException if not a valid scores file.
+     */
+    public static Leaderboard fromBytes(byte[] bytes, int retention) throws IOException {
+        if (bytes.length < 4 * Integer.BYTES + Integer.BYTES) {
+            throw new IOException("not a scores file");
+        }
+        // check the whole file before trusting any count in it
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Integer.BYTES);
+        if (ByteBuffer.wrap(bytes, bytes.length - Integer.BYTES, Integer.BYTES).getInt() != (int) crc.getValue()) {
+            throw new IOException("corrupted scores file");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Integer.BYTES));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a scores file");
+        }
+        int version = in.readInt();
+        Leaderboard leaderboard = new Leaderboard(retention);
+        if (version == 1) {
+            // one table for all the level sets
+            leaderboard.tables.put(DEFAULT_KEY, HighScoresTable.readFrom(in));
+        } else if (version == VERSION) {
+            if (in.readInt() < 0) {
+                throw new IOException("corrupted scores file");
+            }
+            // a table takes at least its key length, size and count
+            for (int count = readCount(in, Short.BYTES + 2 * Integer.BYTES); count > 0; count--) {
+                String key = in.readUTF();
+                leaderboard.tables.put(key, HighScoresTable.readFrom(in));
+            }
+        } else {
+            throw new IOException("unsupported scores file version " + version);
+        }
+        if (in.available() != 0) {
+            throw new IOException("corrupted scores file");
+        }
+        leaderboard.setRetention(retention);
+        return leaderboard;
+    }
+
+    /**
+     * Reads a count of items from a scores file, checking it fits in the
+     * bytes left.
+     *
+     * @param in       the input, over the bytes of the file.
+     * @param itemSize the fewest bytes an item takes.
+     * @return the count.
+     * @throws IOException if the count is negative or too big.
+     */
+    static int readCount(DataInputStream in, int itemSize) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > in.available() / itemSize) {
+            throw new IOException("corrupted scores file");
+        }
+        return count;
+    }
+
+    /**
+     * Read a leaderboard from file and return it.
+     * If the file does not exist, or there is a problem with
+     * reading it, an empty leaderboard is returned.
+     *
+     * @param fileName  the file.
+     * @param retention the most scores to keep for every level set.
+     * @return the leaderboard.
+     */
+    public static Leaderboard loadFromFile(File fileName, int retention) {
+        try {
+            return fromBytes(Files.readAllBytes(fileName.toPath()), retention);
+        } catch (NoSuchFileException e) {
+            return new Leaderboard(retention);
+        } catch (IOException e) {
+            System.out.println("failed reading scores file: " + fileName);
+            return new Leaderboard(retention);
+        }
+    }
+
+    /**
+     * Adds a table of the old, serialized, format as the table of
+     * DEFAULT_KEY.
+     *
+     * @param fileName the old file.
+     * @return if the old file was read.
+     */
+    public boolean addLegacyFile(File fileName) {
+        HighScoresTable table = HighScoresTable.loadLegacyFile(fileName, this.retention);
+        if (table == null) {
+            return false;
+        }
+        this.tables.put(DEFAULT_KEY, table);
+        return true;
+    }
+}
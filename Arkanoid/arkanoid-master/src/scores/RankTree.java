@@ -0,0 +1,297 @@
+package scores;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RankTree class.
+ * <p>
+ * An order-statistic AVL tree of scores, highest first. Every node keeps
+ * the size of its subtree, so inserting, removing the lowest score, finding
+ * the rank of a score and getting the score of a rank are all O(log n).
+ * Equal scores are ordered newest first, like a table that inserts a new
+ * score before the ones it does not beat.
+ */
+public class RankTree {
+    private Node root;
+    private long sequence;
+
+    /**
+     * Constructs an empty RankTree.
+     */
+    public RankTree() {
+        this.root = null;
+        this.sequence = 0;
+    }
+
+    /**
+     * Gives the number of the scores.
+     *
+     * @return the number of the scores.
+     */
+    public int size() {
+        return size(this.root);
+    }
+
+    /**
+     * Inserts a score, before the equal scores already in the tree.
+     *
+     * @param score the score.
+     */
+    public void insert(ScoreInfo score) {
+        this.root = insert(this.root, new Node(score, this.sequence++));
+    }
+
+    /**
+     * Removes the lowest score, the last one.
+     */
+    public void removeLast() {
+        if (this.root != null) {
+            this.root = removeLast(this.root);
+        }
+    }
+
+    /**
+     * Removes all the scores.
+     */
+    public void clear() {
+        this.root = null;
+    }
+
+    /**
+     * Counts the scores higher than the given score.
+     *
+     * @param score the score.
+     * @return the number of the higher scores.
+     */
+    public int countAbove(int score) {
+        int count = 0;
+        Node node = this.root;
+        while (node != null) {
+            if (node.score.getScore() > score) {
+                // the node and everything before it are higher
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gives the score of the given index, 0 is the highest.
+     *
+     * @param index the index.
+     * @return the score.
+     */
+    public ScoreInfo get(int index) {
+        if (index < 0 || index >= this.size()) {
+            throw new IndexOutOfBoundsException("no score " + index + " of " + this.size());
+        }
+        Node node = this.root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.score;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Gives the scores of a range of indexes, highest first.
+     *
+     * @param from  the first index.
+     * @param count the most scores to give.
+     * @return the scores.
+     */
+    public List<ScoreInfo> list(int from, int count) {
+        List<ScoreInfo> scores = new ArrayList<>(Math.max(0, Math.min(count, this.size() - from)));
+        collect(this.root, Math.max(0, from), from + count, 0, scores);
+        return scores;
+    }
+
+    /**
+     * Adds the scores of a subtree in a range of indexes to a list, skipping
+     * the subtrees out of the range.
+     *
+     * @param node   the root of the subtree.
+     * @param from   the first index.
+     * @param to     the index after the last.
+     * @param offset the index of the first score of the subtree.
+     * @param scores the list.
+     */
+    private static void collect(Node node, int from, int to, int offset, List<ScoreInfo> scores) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int index = offset + size(node.left);
+        collect(node.left, from, to, offset, scores);
+        if (index >= from && index < to) {
+            scores.add(node.score);
+        }
+        collect(node.right, from, to, index + 1, scores);
+    }
+
+    /**
+     * Inserts a node to a subtree.
+     *
+     * @param node    the root of the subtree.
+     * @param newNode the node to insert.
+     * @return the new root of the subtree.
+     */
+    private static Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (before(newNode, node)) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Removes the last node of a subtree.
+     *
+     * @param node the root of the subtree, not null.
+     * @return the new root of the subtree.
+     */
+    private static Node removeLast(Node node) {
+        if (node.right == null) {
+            return node.left;
+        }
+        node.right = removeLast(node.right);
+        return balance(node);
+    }
+
+    /**
+     * Tells if a node comes before another: a higher score, or an equal
+     * score inserted later.
+     *
+     * @param node  the node.
+     * @param other the other node.
+     * @return if the node comes first.
+     */
+    private static boolean before(Node node, Node other) {
+        if (node.score.getScore() != other.score.getScore()) {
+            return node.score.getScore() > other.score.getScore();
+        }
+        return node.sequence > other.sequence;
+    }
+
+    /**
+     * Updates a node and rotates it if its subtrees differ in height by two.
+     *
+     * @param node the node.
+     * @return the new root of the subtree.
+     */
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotates a subtree to the right.
+     *
+     * @param node the root of the subtree.
+     * @return the new root of the subtree.
+     */
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    /**
+     * Rotates a subtree to the left.
+     *
+     * @param node the root of the subtree.
+     * @return the new root of the subtree.
+     */
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    /**
+     * Updates the height and size of a node from its children.
+     *
+     * @param node the node.
+     */
+    private static void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    /**
+     * Gives the height of a subtree.
+     *
+     * @param node the root of the subtree.
+     * @return the height, 0 for none.
+     */
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Gives the size of a subtree.
+     *
+     * @param node the root of the subtree.
+     * @return the size, 0 for none.
+     */
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * A node of the tree.
+     */
+    private static class Node {
+        private ScoreInfo score;
+        private long sequence;
+        private int height;
+        private int size;
+        private Node left;
+        private Node right;
+
+        /**
+         * Constructs a leaf node.
+         *
+         * @param score    the score.
+         * @param sequence the insertion number, to order equal scores.
+         */
+        Node(ScoreInfo score, long sequence) {
+            this.score = score;
+            this.sequence = sequence;
+            this.height = 1;
+            this.size = 1;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import java.io.Serializable;
  * ScoreInfo class.
  */
 public class ScoreInfo implements Serializable {
+    // the id of the old serialized scores, so old files can still be read
+    private static final long serialVersionUID = 647734624060489290L;
     private String name;
     private int score;
 
@@ -0,0 +1,86 @@
+package simulation;
+
+import general.Utils;
+import levels.LevelInformation;
+import levels.LevelLoader;
+import levels.LevelSets;
+import surfaces.NullDrawSurface;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HeadlessSimulation class.
+ * <p>
+ * Simulates all the level sets of level_sets.txt without a display and
+ * reports how fast they run, for regression and load testing.
+ * The resources directory must be on the class path.
+ */
+public class HeadlessSimulation {
+    /**
+     * The keyboard script played when none is given.
+     */
+    static final String DEFAULT_SCRIPT = "right*90 left*150 none*20 right*60";
+    private static final int MAX_SECONDS_PER_TURN = 120;
+
+    /**
+     * Runs the simulation.
+     *
+     * @param args optional: the number of runs of every level set, and a
+     *             keyboard script (see ScriptedKeyboardSensor), and the
+     *             option --dirty-repaint.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        // split the option from the arguments
+        List<String> values = new ArrayList<>(Arrays.asList(args));
+        boolean dirtyRepaint = values.remove("--dirty-repaint");
+        args = values.toArray(new String[0]);
+        int runs;
+        try {
+            runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("failed parsing number of runs " + args[0]);
+        }
+        String script = args.length > 1 ? args[1] : DEFAULT_SCRIPT;
+
+        NullDrawSurface surface = new NullDrawSurface(Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT);
+        for (LevelSets.LevelSet levelSet : Utils.levelSets().getLevelSetList()) {
+            LevelSimulator simulator = new LevelSimulator(surface, ScriptedKeyboardSensor.fromString(script),
+                    MAX_SECONDS_PER_TURN * Utils.PHYSICS_STEPS_PER_SECOND);
+            simulator.setDirtyRepaint(dirtyRepaint);
+            long loadNanos = 0;
+            long runNanos = 0;
+            long scores = 0;
+            for (int i = 0; i < runs; i++) {
+                // levels are used up by playing, so load them every run
+                long start = System.nanoTime();
+                List<? extends LevelInformation> levels = loadLevels(levelSet.getPath());
+                long loaded = System.nanoTime();
+                simulator.runLevels(levels);
+                runNanos += System.nanoTime() - loaded;
+                loadNanos += loaded - start;
+                scores += simulator.getScore();
+            }
+            double runSeconds = runNanos / 1e9;
+            System.out.printf("%-15s runs=%d steps=%d frames=%d timeouts=%d avgScore=%.1f "
+                            + "load=%.1fms/run run=%.1fms/run frames/s=%.0f steps/s=%.0f%s%n",
+                    levelSet.getMessage(), runs, simulator.getSteps(), simulator.getFrames(),
+                    simulator.getTimeouts(), scores / (double) runs, loadNanos / 1e6 / runs,
+                    runNanos / 1e6 / runs, simulator.getFrames() / runSeconds,
+                    simulator.getSteps() / runSeconds,
+                    dirtyRepaint ? String.format(" pixels/frame=%.0f", simulator.getPixelsPerFrame()) : "");
+        }
+    }
+
+    /**
+     * Loads the levels of a level definitions resource, compiled if it was.
+     *
+     * @param path the path of the resource.
+     * @return the levels.
+     */
+    private static List<? extends LevelInformation> loadLevels(String path) {
+        return LevelLoader.load(path);
+    }
+}
@@ -0,0 +1,187 @@
+package simulation;
+
+import animation.AnimationRunner;
+import animation.GameLevel;
+import biuoop.DrawSurface;
+import general.Utils;
+import levels.LevelInformation;
+import levels.LevelSource;
+import levels.ListLevelSource;
+
+import java.util.List;
+
+/**
+ * LevelSimulator class.
+ * <p>
+ * Plays levels without a display, the way GameFlow does, as fast as the
+ * CPU allows. Every level is stepped in fixed physics steps with a
+ * scripted keyboard and drawn on the given surface once every display
+ * frame. A turn that runs longer than the step limit (like a ball stuck
+ * bouncing between borders) ends the level and is counted as timed out.
+ */
+public class LevelSimulator {
+    private DrawSurface surface;
+    private ScriptedKeyboardSensor keyboard;
+    private AnimationRunner runner;
+    private int maxStepsPerTurn;
+    private int stepsPerFrame;
+    private double stepDt;
+    private long steps;
+    private long frames;
+    private int timeouts;
+    private int score;
+    private int lives;
+    private boolean dirtyRepaint;
+    private double pixelsPerFrame;
+
+    /**
+     * Constructs a LevelSimulator.
+     *
+     * @param surface         the surface to draw on.
+     * @param keyboard        the scripted keyboard.
+     * @param maxStepsPerTurn the most steps of one turn.
+     */
+    public LevelSimulator(DrawSurface surface, ScriptedKeyboardSensor keyboard, int maxStepsPerTurn) {
+        this.surface = surface;
+        this.keyboard = keyboard;
+        this.maxStepsPerTurn = maxStepsPerTurn;
+        this.runner = new AnimationRunner(surface);
+        // nested animations (like pause) also advance the script
+        this.runner.setStepListener(keyboard);
+        this.stepsPerFrame = Math.max(1, Utils.PHYSICS_STEPS_PER_SECOND / Utils.FRAMES_PER_SECOND);
+        this.stepDt = 1.0D / Utils.PHYSICS_STEPS_PER_SECOND;
+    }
+
+    /**
+     * Sets if the levels are drawn in the dirty-rectangle repaint mode.
+     *
+     * @param newDirtyRepaint true for the dirty-rectangle mode.
+     */
+    public void setDirtyRepaint(boolean newDirtyRepaint) {
+        this.dirtyRepaint = newDirtyRepaint;
+    }
+
+    /**
+     * Plays the levels one after the other until they end or the lives end.
+     * The levels are played for real, so their blocks can't be used again.
+     *
+     * @param levels the levels to play.
+     */
+    public void runLevels(List<? extends LevelInformation> levels) {
+        this.runLevels(new ListLevelSource(levels));
+    }
+
+    /**
+     * Plays the levels of the source like runLevels of a list, loading
+     * every level only when it is reached.
+     *
+     * @param levels the source of the levels to play.
+     */
+    public void runLevels(LevelSource levels) {
+        this.score = 0;
+        this.lives = Utils.LIVES;
+        this.keyboard.reset();
+        for (int i = 0; i < levels.size(); i++) {
+            LevelInformation levelInfo = levels.get(i);
+            GameLevel level = new GameLevel(levelInfo, this.keyboard, this.runner, this.score, this.lives);
+            level.initialize();
+            level.setDirtyRepaint(this.dirtyRepaint);
+
+            // level has more blocks and player has more lives
+            boolean timedOut = false;
+            while (level.getNumBlocks() > 0 && this.lives > 0 && !timedOut) {
+                timedOut = !this.playOneTurn(level);
+                this.lives = level.getNumLives();
+                this.score = level.getScore();
+            }
+            if (timedOut) {
+                this.timeouts++;
+            }
+            this.pixelsPerFrame = level.getAveragePixelsPerFrame();
+
+            // if no more lives
+            if (this.lives < 1) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Plays one turn of the level.
+     *
+     * @param level the level.
+     * @return true if the turn ended by itself, false if it timed out.
+     */
+    private boolean playOneTurn(GameLevel level) {
+        level.startTurn();
+        for (int i = 0; i < this.maxStepsPerTurn; i++) {
+            this.keyboard.beforeStep();
+            level.step(this.stepDt);
+            this.steps++;
+            if (level.shouldStop()) {
+                return true;
+            }
+            // draw once every display frame
+            if ((i + 1) % this.stepsPerFrame == 0) {
+                level.drawFrame(this.surface, 1);
+                this.frames++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives the number of physics steps run so far.
+     *
+     * @return the number of steps.
+     */
+    public long getSteps() {
+        return this.steps;
+    }
+
+    /**
+     * Gives the number of frames drawn so far.
+     *
+     * @return the number of frames.
+     */
+    public long getFrames() {
+        return this.frames;
+    }
+
+    /**
+     * Gives the number of levels that ended by a timed out turn.
+     *
+     * @return the number of timeouts.
+     */
+    public int getTimeouts() {
+        return this.timeouts;
+    }
+
+    /**
+     * Gives the average pixels touched per frame in the last played level
+     * (0 if not in the dirty-rectangle mode).
+     *
+     * @return the average pixels per frame.
+     */
+    public double getPixelsPerFrame() {
+        return this.pixelsPerFrame;
+    }
+
+    /**
+     * Gives the score at the end of the last run.
+     *
+     * @return the score.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Gives the lives at the end of the last run.
+     *
+     * @return the lives.
+     */
+    public int getLives() {
+        return this.lives;
+    }
+}
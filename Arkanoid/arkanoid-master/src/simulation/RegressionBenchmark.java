@@ -0,0 +1,317 @@
+package simulation;
+
+import animation.AnimationRunner;
+import animation.GameLevel;
+import animation.StepListener;
+import biuoop.KeyboardSensor;
+import general.Utils;
+import geometry.Point;
+import levels.LevelInformation;
+import levels.LevelLoader;
+import levels.LevelSets;
+import levels.LevelSource;
+import replay.Replay;
+import replay.ReplayKeyboardSensor;
+import surfaces.NullDrawSurface;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * RegressionBenchmark class.
+ * <p>
+ * Plays every level of the level sets of level_sets.txt without a display,
+ * each on its own from a new game, with a keyboard script or a recorded
+ * replay as the input, and reduces the state at the end of each level
+ * (score, lives, blocks left and the exact centers of the balls) to a
+ * digest. The digests are checked against the expected digests file, so a
+ * change that alters the gameplay in any level fails, and the frames and
+ * steps per second show if it made the game faster.
+ * The levels are played a few times, and a level that ends differently
+ * between the runs fails too. The resources directory must be on the
+ * class path, and the exit code is 1 on any failure.
+ */
+public class RegressionBenchmark {
+    /**
+     * The default path of the expected digests file.
+     */
+    public static final String DIGESTS_PATH = "bench/regression_digests.txt";
+    private static final int MAX_SECONDS_PER_LEVEL = 60;
+    private static final long SEED = 1;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private String script;
+    private Replay replay;
+    private NullDrawSurface surface;
+    private int maxSteps;
+    private int stepsPerFrame;
+    private double stepDt;
+    private long steps;
+    private long frames;
+    private long nanos;
+
+    /**
+     * Constructs a RegressionBenchmark played by a keyboard script, or by
+     * a replay if one is given.
+     *
+     * @param script the keyboard script (see ScriptedKeyboardSensor).
+     * @param replay the replay, or null to play the script.
+     */
+    public RegressionBenchmark(String script, Replay replay) {
+        this.script = script;
+        this.replay = replay;
+        this.surface = new NullDrawSurface(Utils.WINDOW_WIDTH, Utils.WINDOW_HEIGHT);
+        this.maxSteps = MAX_SECONDS_PER_LEVEL * Utils.PHYSICS_STEPS_PER_SECOND;
+        this.stepsPerFrame = Math.max(1, Utils.PHYSICS_STEPS_PER_SECOND / Utils.FRAMES_PER_SECOND);
+        this.stepDt = 1.0D / Utils.PHYSICS_STEPS_PER_SECOND;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional: --runs=N the number of runs (3 by default),
+     *             --script=SCRIPT a keyboard script, --replay=FILE a
+     *             recorded game to take the keys from instead,
+     *             --digests=FILE the expected digests file, and --update
+     *             to write the digests of this run as the expected ones.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int runs = 3;
+        String script = HeadlessSimulation.DEFAULT_SCRIPT;
+        Replay replay = null;
+        String input = "script " + script;
+        File digestsFile = new File(DIGESTS_PATH);
+        boolean update = false;
+        for (String arg : args) {
+            if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.startsWith("--script=")) {
+                script = arg.substring("--script=".length());
+                input = "script " + script;
+            } else if (arg.startsWith("--replay=")) {
+                File replayFile = new File(arg.substring("--replay=".length()));
+                replay = Replay.load(replayFile);
+                input = "replay " + replayFile.getName();
+            } else if (arg.startsWith("--digests=")) {
+                digestsFile = new File(arg.substring("--digests=".length()));
+            } else if (arg.equals("--update")) {
+                update = true;
+            } else {
+                throw new RuntimeException("unknown option " + arg);
+            }
+        }
+
+        RegressionBenchmark benchmark = new RegressionBenchmark(script, replay);
+        Map<String, String> digests = new LinkedHashMap<>();
+        Map<String, String> names = new LinkedHashMap<>();
+        int unstable = 0;
+        for (LevelSets.LevelSet levelSet : Utils.levelSets().getLevelSetList()) {
+            benchmark.resetCounters();
+            // every game of a level gets new blocks, so the levels are loaded once
+            LevelSource levels = LevelLoader.source(levelSet.getPath());
+            for (int run = 0; run < runs; run++) {
+                for (int i = 0; i < levels.size(); i++) {
+                    String id = levelSet.getKey() + "/" + i;
+                    GameLevel level = benchmark.play(levels.get(i));
+                    String digest = digest(level);
+                    if (run == 0) {
+                        digests.put(id, digest);
+                        names.put(id, level.getLevelName());
+                    } else if (!digest.equals(digests.get(id))) {
+                        System.out.println("UNSTABLE " + id + " run " + (run + 1) + " got " + digest
+                                + " after " + digests.get(id));
+                        unstable++;
+                    }
+                }
+            }
+            double seconds = benchmark.nanos / 1e9;
+            System.out.printf("%-15s runs=%d steps=%d frames=%d frames/s=%.0f steps/s=%.0f%n",
+                    levelSet.getMessage(), runs, benchmark.steps, benchmark.frames,
+                    benchmark.frames / seconds, benchmark.steps / seconds);
+        }
+
+        if (update) {
+            writeDigests(digestsFile, input, digests, names);
+            System.out.println("regression: wrote " + digests.size() + " digests to " + digestsFile);
+            System.exit(unstable == 0 ? 0 : 1);
+        }
+        int failed = unstable + check(digestsFile, input, digests, names);
+        if (failed > 0) {
+            System.out.println("regression: FAILED " + failed + " of " + digests.size() + " levels");
+            System.exit(1);
+        }
+        System.out.println("regression: OK " + digests.size() + " levels");
+    }
+
+    /**
+     * Plays one level from a new game until its blocks or lives end, or
+     * the step limit.
+     *
+     * @param info the level.
+     * @return the level at the end.
+     */
+    private GameLevel play(LevelInformation info) {
+        KeyboardSensor keyboard = this.newKeyboard();
+        StepListener listener = (StepListener) keyboard;
+        AnimationRunner runner = new AnimationRunner(this.surface);
+        // nested animations (like pause) also advance the input
+        runner.setStepListener(listener);
+        GameLevel level = new GameLevel(info, keyboard, runner, 0, Utils.LIVES);
+        level.setRandom(new Random(SEED));
+        level.initialize();
+
+        long start = System.nanoTime();
+        int levelSteps = 0;
+        while (level.getNumBlocks() > 0 && level.getNumLives() > 0 && levelSteps < this.maxSteps) {
+            level.startTurn();
+            while (levelSteps < this.maxSteps) {
+                listener.beforeStep();
+                level.step(this.stepDt);
+                levelSteps++;
+                if (level.shouldStop()) {
+                    break;
+                }
+                // draw once every display frame
+                if (levelSteps % this.stepsPerFrame == 0) {
+                    level.drawFrame(this.surface, 1);
+                    this.frames++;
+                }
+            }
+        }
+        this.nanos += System.nanoTime() - start;
+        this.steps += levelSteps;
+        return level;
+    }
+
+    /**
+     * Gives a new keyboard that plays the input from its start.
+     *
+     * @return the keyboard, also a step listener.
+     */
+    private KeyboardSensor newKeyboard() {
+        if (this.replay != null) {
+            return new ReplayKeyboardSensor(this.replay);
+        }
+        return ScriptedKeyboardSensor.fromString(this.script);
+    }
+
+    /**
+     * Zeroes the steps, frames and time counted.
+     */
+    private void resetCounters() {
+        this.steps = 0;
+        this.frames = 0;
+        this.nanos = 0;
+    }
+
+    /**
+     * Reduces the state of a level to a digest: FNV-1a of the score, the
+     * lives, the blocks left and the exact bits of the centers of the balls.
+     *
+     * @param level the level.
+     * @return the digest, as 16 hex digits.
+     */
+    static String digest(GameLevel level) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, level.getScore());
+        hash = mix(hash, level.getNumLives());
+        hash = mix(hash, level.getNumBlocks());
+        List<Point> centers = level.getBallCenters();
+        hash = mix(hash, centers.size());
+        for (Point center : centers) {
+            hash = mix(hash, Double.doubleToLongBits(center.getX()));
+            hash = mix(hash, Double.doubleToLongBits(center.getY()));
+        }
+        return String.format("%016x", hash);
+    }
+
+    /**
+     * Mixes the bytes of a value into an FNV-1a hash.
+     *
+     * @param hash  the hash so far.
+     * @param value the value.
+     * @return the new hash.
+     */
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (value >>> (8 * i)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Checks the digests against the expected digests file, printing every
+     * difference.
+     *
+     * @param file    the expected digests file.
+     * @param input   the input the digests were made with.
+     * @param digests the digests of every level by its id.
+     * @param names   the name of every level by its id.
+     * @return the number of the failed levels.
+     */
+    private static int check(File file, String input, Map<String, String> digests, Map<String, String> names) {
+        Map<String, String> expected = new LinkedHashMap<>();
+        String expectedInput = null;
+        try {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (line.startsWith("input ")) {
+                    expectedInput = line.substring("input ".length());
+                } else if (!line.isEmpty() && !line.startsWith("#")) {
+                    String[] parts = line.split("\\s+");
+                    expected.put(parts[0], parts[1]);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("regression: failed reading " + file + ", run with --update to create it");
+            return digests.size();
+        }
+        if (!input.equals(expectedInput)) {
+            System.out.println("regression: " + file + " has the digests of " + expectedInput + ", not " + input);
+            return digests.size();
+        }
+        int failed = 0;
+        for (Map.Entry<String, String> digest : digests.entrySet()) {
+            String id = digest.getKey();
+            if (!digest.getValue().equals(expected.get(id))) {
+                System.out.println("MISMATCH " + id + " (" + names.get(id) + ") expected " + expected.get(id)
+                        + " got " + digest.getValue());
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Writes the digests as the expected digests file.
+     *
+     * @param file    the expected digests file.
+     * @param input   the input the digests were made with.
+     * @param digests the digests of every level by its id.
+     * @param names   the name of every level by its id.
+     */
+    private static void writeDigests(File file, String input, Map<String, String> digests,
+                                     Map<String, String> names) {
+        List<String> lines = new ArrayList<>();
+        lines.add("# expected end states of RegressionBenchmark, one level per line:");
+        lines.add("# <level set key>/<level index> <digest> # <level name>");
+        lines.add("input " + input);
+        for (Map.Entry<String, String> digest : digests.entrySet()) {
+            lines.add(digest.getKey() + " " + digest.getValue() + " # " + names.get(digest.getKey()));
+        }
+        try {
+            Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("failed writing digests to " + file, e);
+        }
+    }
+}
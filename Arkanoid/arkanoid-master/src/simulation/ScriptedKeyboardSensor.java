@@ -0,0 +1,114 @@
+package simulation;
+
+import animation.StepListener;
+import biuoop.KeyboardSensor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ScriptedKeyboardSensor class.
+ * <p>
+ * A keyboard that presses keys by a script instead of a user.
+ * The script is a list of parts, each holds some keys for some steps,
+ * and it starts over when it ends. The keyboard moves one step forward
+ * before every step of the animation runner.
+ * A script can be parsed from text like "right*30 left*60 none*10".
+ */
+public class ScriptedKeyboardSensor implements KeyboardSensor, StepListener {
+    private List<Set<String>> keys;
+    private List<Integer> lengths;
+    private int part;
+    private int stepInPart;
+
+    /**
+     * Constructs an empty script (no key is ever pressed).
+     */
+    public ScriptedKeyboardSensor() {
+        this.keys = new ArrayList<>();
+        this.lengths = new ArrayList<>();
+        this.reset();
+    }
+
+    /**
+     * Parses a script from text.
+     * Every part is "keys*steps" where keys are separated by '+', and
+     * "none" means no key, for example "left+space*5".
+     *
+     * @param script the script text.
+     * @return the scripted keyboard.
+     */
+    public static ScriptedKeyboardSensor fromString(String script) {
+        ScriptedKeyboardSensor keyboard = new ScriptedKeyboardSensor();
+        for (String part : script.trim().split("\\s+")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            String[] parts = part.split("\\*");
+            int steps;
+            try {
+                steps = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("failed parsing script part " + part);
+            }
+            if (parts[0].equals("none")) {
+                keyboard.addPart(steps);
+            } else {
+                keyboard.addPart(steps, parts[0].split("\\+"));
+            }
+        }
+        return keyboard;
+    }
+
+    /**
+     * Adds a part to the end of the script.
+     *
+     * @param steps   the number of steps the keys are pressed.
+     * @param pressed the pressed keys (none for no key).
+     */
+    public void addPart(int steps, String... pressed) {
+        this.keys.add(new HashSet<>(Arrays.asList(pressed)));
+        this.lengths.add(Math.max(1, steps));
+    }
+
+    /**
+     * Starts the script over.
+     */
+    public void reset() {
+        // before the first step
+        this.part = 0;
+        this.stepInPart = -1;
+    }
+
+    /**
+     * Moves the script one step forward.
+     */
+    @Override
+    public void beforeStep() {
+        if (this.keys.isEmpty()) {
+            return;
+        }
+        this.stepInPart++;
+        if (this.stepInPart >= this.lengths.get(this.part)) {
+            this.stepInPart = 0;
+            this.part = (this.part + 1) % this.keys.size();
+        }
+    }
+
+    /**
+     * Tells if the key is pressed at the current step.
+     *
+     * @param key the key.
+     * @return true if the script presses the key now, else false.
+     */
+    @Override
+    public boolean isPressed(String key) {
+        if (this.keys.isEmpty() || this.stepInPart < 0) {
+            return false;
+        }
+        return this.keys.get(this.part).contains(key);
+    }
+}
@@ -8,7 +8,7 @@ import java.awt.Color;
 /**
  * ColorBackground class.
  */
-public class ColorBackground implements Sprite {
+public class ColorBackground implements PassiveSprite {
     private Color color;
 
     /**
@@ -52,6 +52,6 @@ public class ColorBackground implements Sprite {
      * @param gameLevel the GameLevel that
      */
     public void addToGame(GameLevel gameLevel) {
-        gameLevel.addSprite(this);
+        gameLevel.addStaticSprite(this);
     }
 }
@@ -0,0 +1,122 @@
+package sprites;
+
+import biuoop.DrawSurface;
+import general.ImageCache;
+import surfaces.ImageDrawSurface;
+import surfaces.TrackingDrawSurface;
+
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DirtyRectangleRenderer class.
+ * <p>
+ * Draws a level into a back buffer that is kept between frames, and only
+ * composites the regions that changed: the bounds the moving sprites had
+ * in the last frame (restored from the static layer), the parts of the
+ * static layer that were rendered again, and the moving sprites at their
+ * new places. Every moving sprite is drawn once, through a surface that
+ * tracks its bounds for the next frame.
+ * Keeps a statistic of the pixels touched per frame.
+ */
+public class DirtyRectangleRenderer {
+    private StaticLayer layer;
+    private SpriteCollection sprites;
+    private ImageDrawSurface back;
+    private TrackingDrawSurface tracker;
+    private List<Rectangle> previous;
+    private Rectangle screen;
+    private long lastPixels;
+    private long totalPixels;
+    private long frames;
+
+    /**
+     * Constructs a DirtyRectangleRenderer.
+     *
+     * @param layer   the static layer of the level.
+     * @param sprites the sprites of the level (the layer among them is skipped).
+     * @param width   the width of the screen.
+     * @param height  the height of the screen.
+     */
+    public DirtyRectangleRenderer(StaticLayer layer, SpriteCollection sprites, int width, int height) {
+        this.layer = layer;
+        this.sprites = sprites;
+        this.screen = new Rectangle(0, 0, width, height);
+        this.previous = new ArrayList<>();
+    }
+
+    /**
+     * Draws the frame on the surface, compositing only the changed regions.
+     *
+     * @param surface the surface to draw on.
+     * @param alpha   the interpolation of the moving sprites.
+     */
+    public void drawOn(DrawSurface surface, double alpha) {
+        this.layer.update();
+        List<Rectangle> damage = this.layer.takeChanges();
+        if (this.back == null) {
+            this.back = new ImageDrawSurface(ImageCache.createCompatible(this.screen.width, this.screen.height,
+                    Transparency.OPAQUE));
+            this.tracker = new TrackingDrawSurface(this.back);
+            damage.clear();
+            damage.add(this.screen);
+        }
+        damage.addAll(this.previous);
+
+        // restore the static layer where things changed or moved away
+        long pixels = 0;
+        for (Rectangle area : damage) {
+            Rectangle clipped = area.intersection(this.screen);
+            if (clipped.isEmpty()) {
+                continue;
+            }
+            this.back.setClip(clipped);
+            this.back.drawImage(0, 0, this.layer.getImage());
+            pixels += (long) clipped.width * clipped.height;
+        }
+        this.back.setClip(null);
+
+        // draw the moving sprites at their new places
+        List<Rectangle> current = new ArrayList<>();
+        for (Sprite sprite : this.sprites) {
+            if (sprite == this.layer) {
+                continue;
+            }
+            SpriteCollection.drawOn(sprite, this.tracker, alpha);
+            Rectangle bounds = this.tracker.takeBounds();
+            if (bounds != null) {
+                current.add(bounds);
+                Rectangle clipped = bounds.intersection(this.screen);
+                if (!clipped.isEmpty()) {
+                    pixels += (long) clipped.width * clipped.height;
+                }
+            }
+        }
+        this.previous = current;
+
+        this.lastPixels = pixels;
+        this.totalPixels += pixels;
+        this.frames++;
+        surface.drawImage(0, 0, this.back.getImage());
+    }
+
+    /**
+     * Gives the pixels touched in the last frame.
+     *
+     * @return the pixels touched in the last frame.
+     */
+    public long getLastPixels() {
+        return this.lastPixels;
+    }
+
+    /**
+     * Gives the average of the pixels touched per frame.
+     *
+     * @return the average pixels per frame.
+     */
+    public double getAveragePixels() {
+        return this.frames == 0 ? 0 : this.totalPixels / (double) this.frames;
+    }
+}
@@ -8,7 +8,7 @@ import java.awt.Image;
 /**
  * ImageBackground class.
  */
-public class ImageBackground implements Sprite {
+public class ImageBackground implements PassiveSprite {
     private Image image;
 
     /**
@@ -44,6 +44,6 @@ public class ImageBackground implements Sprite {
      * @param gameLevel the GameLevel that
      */
     public void addToGame(GameLevel gameLevel) {
-        gameLevel.addSprite(this);
+        gameLevel.addStaticSprite(this);
     }
 }
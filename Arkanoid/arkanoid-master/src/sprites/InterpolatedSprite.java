@@ -0,0 +1,20 @@
+package sprites;
+
+import biuoop.DrawSurface;
+
+/**
+ * InterpolatedSprite interface.
+ * <p>
+ * A moving sprite that can be drawn between its last two positions.
+ */
+public interface InterpolatedSprite extends Sprite {
+
+    /**
+     * Draws the sprite between its position before the last time passed
+     * and its current position.
+     *
+     * @param surface the surface to draw on.
+     * @param alpha   0 for the previous position, 1 for the current one.
+     */
+    void drawOn(DrawSurface surface, double alpha);
+}
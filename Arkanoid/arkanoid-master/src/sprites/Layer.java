@@ -0,0 +1,27 @@
+package sprites;
+
+/**
+ * Layer enum.
+ * <p>
+ * The drawing layers of the sprites, from the bottom up. Sprites of a
+ * lower layer are always drawn before the sprites of a higher one, and
+ * inside a layer in the order they were added.
+ */
+public enum Layer {
+    /**
+     * The background and anything drawn under the blocks.
+     */
+    BACKGROUND,
+    /**
+     * The blocks and the borders.
+     */
+    BLOCKS,
+    /**
+     * The moving sprites, like the balls and the paddle.
+     */
+    DYNAMIC,
+    /**
+     * The indicators drawn over everything.
+     */
+    HUD
+}
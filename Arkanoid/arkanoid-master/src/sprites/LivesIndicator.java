@@ -2,15 +2,19 @@ package sprites;
 
 import biuoop.DrawSurface;
 import animation.GameLevel;
+import general.Counter;
 import general.Utils;
+import listeners.CounterListener;
 import sprites.blocks.Border;
 
 import java.awt.Color;
 
 /**
  * Lives indicator class.
+ * <p>
+ * Drawn from the static layer, and drawn again only when the lives change.
  */
-public class LivesIndicator extends Border {
+public class LivesIndicator extends Border implements CounterListener {
     private GameLevel gameLevel;
 
     /**
@@ -47,9 +51,20 @@ public class LivesIndicator extends Border {
     }
 
     /**
-     * Adds this to game.
+     * Adds this to game, and listens to the lives.
      */
     public void addToGame() {
-        this.gameLevel.addSprite(this);
+        this.gameLevel.addStaticSprite(this);
+        this.gameLevel.getLivesUpdater().getCurrentLives().addCounterListener(this);
+    }
+
+    /**
+     * Draws the indicator again after the lives changed.
+     *
+     * @param counter the lives counter.
+     */
+    @Override
+    public void counterChanged(Counter counter) {
+        this.gameLevel.invalidateStaticSprite(this);
     }
 }
\ No newline at end of file
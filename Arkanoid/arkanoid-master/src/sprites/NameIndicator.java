@@ -8,7 +8,9 @@ import sprites.blocks.Border;
 import java.awt.Color;
 
 /**
- * Score indicator class.
+ * Level name indicator class.
+ * <p>
+ * The name never changes, so it is drawn once into the static layer.
  */
 public class NameIndicator extends Border {
     private GameLevel gameLevel;
@@ -40,6 +42,6 @@ public class NameIndicator extends Border {
      * Adds this to game.
      */
     public void addToGame() {
-        this.gameLevel.addSprite(this);
+        this.gameLevel.addStaticSprite(this);
     }
 }
\ No newline at end of file
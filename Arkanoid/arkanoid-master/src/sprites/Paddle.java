@@ -10,7 +10,6 @@ import geometry.Rectangle;
 import geometry.Point;
 import geometry.Velocity;
 import geometry.Ball;
-import geometry.Line;
 
 import java.awt.Color;
 
@@ -19,8 +18,9 @@ import java.awt.Color;
  *
  * @author Ori.
  */
-public class Paddle implements Sprite, Collidable {
+public class Paddle implements InterpolatedSprite, Collidable {
     private Rectangle shape;
+    private double previousX;
     private int speed;
     private Color color;
     private GameEnvironment environment;
@@ -50,12 +50,10 @@ public class Paddle implements Sprite, Collidable {
      * @param dt keeps the speed to be according to seconds.
      */
     private void moveLeft(double dt) {
-        // the new xPos of the paddle
-        int newX = (int) (this.shape.getUpperLeft().getX() - dt * this.speed);
-        // change to new xPos if not pass the borders
-        if (newX >= this.environment.getBorder()) {
-            this.shape.getUpperLeft().setX(newX);
-        }
+        // the new xPos of the paddle, stopped by the border
+        double newX = Math.max(this.environment.getBorder(), this.shape.getUpperLeft().getX() - dt * this.speed);
+        this.shape.getUpperLeft().setLocation(newX, this.shape.getUpperLeft().getY());
+        this.environment.updateCollidable(this);
     }
 
     /**
@@ -64,13 +62,11 @@ public class Paddle implements Sprite, Collidable {
      * @param dt keeps the speed to be according to seconds.
      */
     private void moveRight(double dt) {
-        // paddle width and new xPos of the paddle
-        int width = (int) this.shape.getWidth();
-        int newX = (int) (this.shape.getUpperLeft().getX() + dt * this.speed);
-        // change to new xPos if not pass the borders
-        if (newX + width <= this.environment.getWidth() - this.environment.getBorder()) {
-            this.shape.getUpperLeft().setX(newX);
-        }
+        // the new xPos of the paddle, stopped by the border
+        double maxX = this.environment.getWidth() - this.environment.getBorder() - this.shape.getWidth();
+        double newX = Math.min(maxX, this.shape.getUpperLeft().getX() + dt * this.speed);
+        this.shape.getUpperLeft().setLocation(newX, this.shape.getUpperLeft().getY());
+        this.environment.updateCollidable(this);
     }
 
     /**
@@ -94,6 +90,7 @@ public class Paddle implements Sprite, Collidable {
         double yPos = Utils.WINDOW_HEIGHT - 0.3 * Utils.BORDER_SIZE - height;
         // sets the rectangle of the paddle
         this.shape = new Rectangle(new Point(xPos, yPos), width, height);
+        this.previousX = xPos;
     }
 
     /**
@@ -112,6 +109,7 @@ public class Paddle implements Sprite, Collidable {
      */
     @Override
     public void timePassed(double dt) {
+        this.previousX = this.shape.getUpperLeft().getX();
         // case left key is pressed move left
         if (keyboard.isPressed(KeyboardSensor.LEFT_KEY)) {
             this.moveLeft(dt);
@@ -129,12 +127,24 @@ public class Paddle implements Sprite, Collidable {
      */
     @Override
     public void drawOn(DrawSurface surface) {
+        this.drawOn(surface, 1);
+    }
+
+    /**
+     * Draws the paddle between its last two positions.
+     *
+     * @param surface the surface that paddle drawn on.
+     * @param alpha   0 for the previous position, 1 for the current one.
+     */
+    @Override
+    public void drawOn(DrawSurface surface, double alpha) {
         // width and height of paddle
         int height = (int) shape.getHeight();
         int width = (int) shape.getWidth();
 
         // position of the top left point of paddle
-        int startX = (int) getCollisionRectangle().getUpperLeft().getX();
+        double xPos = getCollisionRectangle().getUpperLeft().getX();
+        int startX = (int) (this.previousX + (xPos - this.previousX) * alpha);
         int startY = (int) getCollisionRectangle().getUpperLeft().getY();
 
         // draw paddles circle in color
@@ -200,17 +210,11 @@ public class Paddle implements Sprite, Collidable {
             return Velocity.fromAngleAndSpeed(60, ballSpeed);
         }
 
-        // take the lines clockwise
-        Line top = this.shape.getLines().get(0);
-        Line right = this.shape.getLines().get(1);
-        Line bottom = this.shape.getLines().get(2);
-        Line left = this.shape.getLines().get(3);
-
         // booleans if hit the top, bottom, left or right side
-        boolean onTop = collisionPoint.onSegment(top.start(), top.end());
-        boolean onRight = collisionPoint.onSegment(right.start(), right.end());
-        boolean onBtm = collisionPoint.onSegment(bottom.start(), bottom.end());
-        boolean onLeft = collisionPoint.onSegment(left.start(), left.end());
+        boolean onTop = this.shape.isOnTop(collisionPoint);
+        boolean onRight = this.shape.isOnRight(collisionPoint);
+        boolean onBtm = this.shape.isOnBottom(collisionPoint);
+        boolean onLeft = this.shape.isOnLeft(collisionPoint);
 
         // update dx and dy according the side of the hit
         if (onTop) {
@@ -0,0 +1,10 @@
+package sprites;
+
+/**
+ * A PassiveSprite interface.
+ * <p>
+ * Marks a sprite whose timePassed does nothing, so the sprite collection
+ * only draws it and never notifies it.
+ */
+public interface PassiveSprite extends Sprite {
+}
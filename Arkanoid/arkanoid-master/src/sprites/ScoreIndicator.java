@@ -2,15 +2,19 @@ package sprites;
 
 import biuoop.DrawSurface;
 import animation.GameLevel;
+import general.Counter;
 import general.Utils;
+import listeners.CounterListener;
 import sprites.blocks.Border;
 
 import java.awt.Color;
 
 /**
  * Score indicator class.
+ * <p>
+ * Drawn from the static layer, and drawn again only when the score changes.
  */
-public class ScoreIndicator extends Border {
+public class ScoreIndicator extends Border implements CounterListener {
     private GameLevel gameLevel;
 
     /**
@@ -42,6 +46,28 @@ public class ScoreIndicator extends Border {
      * Adds this to game.
      */
     public void addToGame() {
-        super.addToGame(this.gameLevel);
+        this.addToGame(this.gameLevel);
+    }
+
+    /**
+     * Adds this to the game, and listens to the score.
+     *
+     * @param level the GameLevel to add to.
+     */
+    @Override
+    public void addToGame(GameLevel level) {
+        level.addStaticSprite(this);
+        level.addCollidable(this);
+        level.getScoreUpdater().getCurrentScore().addCounterListener(this);
+    }
+
+    /**
+     * Draws the indicator again after the score changed.
+     *
+     * @param counter the score counter.
+     */
+    @Override
+    public void counterChanged(Counter counter) {
+        this.gameLevel.invalidateStaticSprite(this);
     }
 }
\ No newline at end of file
@@ -3,48 +3,110 @@ package sprites;
 import biuoop.DrawSurface;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * SpriteCollection class.
+ * <p>
+ * Keeps the sprites in drawing layers, each a linked list of nodes, and a
+ * handle of every sprite to its node, so adding and removing a sprite are
+ * O(1). Sprites that aren't passive are also linked in a second list, the
+ * only one that is notified that time passed.
+ * Changes made while the collection is notified or drawn (a ball that is
+ * lost, a block that is destroyed) are deferred until the pass ends, so
+ * the lists are never copied.
  */
-public class SpriteCollection {
-    private List<Sprite> sprites;
+public class SpriteCollection implements Iterable<Sprite> {
+    private Node[] heads;
+    private Node[] tails;
+    private Node activeHead;
+    private Node activeTail;
+    private Map<Sprite, Node> handles;
+    private int passes;
+    private List<Node> pending;
 
     /**
      * Constructs a new SpriteCollection.
      */
     public SpriteCollection() {
-        this.sprites = new ArrayList<>();
+        this.heads = new Node[Layer.values().length];
+        this.tails = new Node[Layer.values().length];
+        this.handles = new IdentityHashMap<>();
+        this.passes = 0;
+        this.pending = new ArrayList<>();
     }
 
     /**
-     * Adds given sprite to sprites.
+     * Removes given sprite from sprites.
      *
-     * @param sprite a sprite to add to sprites.
+     * @param sprite a sprite to remove from sprites.
      */
     public void removeSprite(Sprite sprite) {
-        this.sprites.remove(sprite);
+        if (this.passes > 0) {
+            this.pending.add(new Node(sprite, null));
+            return;
+        }
+        Node node = this.handles.remove(sprite);
+        if (node != null) {
+            this.unlink(node);
+        }
     }
 
     /**
-     * Adds given sprite to sprites.
+     * Adds given sprite to the dynamic layer.
      *
      * @param sprite a sprite to add to sprites.
      */
     public void addSprite(Sprite sprite) {
-        this.sprites.add(sprite);
+        this.addSprite(sprite, Layer.DYNAMIC);
+    }
+
+    /**
+     * Adds given sprite on top of the given layer. A sprite that is
+     * already in the collection is not added again.
+     *
+     * @param sprite a sprite to add to sprites.
+     * @param layer  the layer to draw the sprite in.
+     */
+    public void addSprite(Sprite sprite, Layer layer) {
+        if (this.passes > 0) {
+            this.pending.add(new Node(sprite, layer));
+            return;
+        }
+        if (this.handles.containsKey(sprite)) {
+            return;
+        }
+        Node node = new Node(sprite, layer);
+        this.handles.put(sprite, node);
+        this.link(node);
     }
 
     /**
-     * Calls timePassed() on all sprites.
+     * Gives the number of sprites.
+     *
+     * @return the number of sprites.
+     */
+    public int size() {
+        return this.handles.size();
+    }
+
+    /**
+     * Calls timePassed() on all sprites that aren't passive.
      *
      * @param dt keeps the speed to be according to seconds.
      */
-     public void notifyAllTimePassed(double dt) {
-        List<Sprite> copy = new ArrayList<>(this.sprites);
-        for (Sprite sprite : copy) {
-            sprite.timePassed(dt);
+    public void notifyAllTimePassed(double dt) {
+        this.passes++;
+        try {
+            for (Node node = this.activeHead; node != null; node = node.nextActive) {
+                node.sprite.timePassed(dt);
+            }
+        } finally {
+            this.endPass();
         }
     }
 
@@ -54,8 +116,189 @@ public class SpriteCollection {
      * @param surface the surface to draw on.
      */
     public void drawAllOn(DrawSurface surface) {
-        for (Sprite sprite : this.sprites) {
+        this.passes++;
+        try {
+            for (Node head : this.heads) {
+                for (Node node = head; node != null; node = node.next) {
+                    node.sprite.drawOn(surface);
+                }
+            }
+        } finally {
+            this.endPass();
+        }
+    }
+
+    /**
+     * Draws all sprites, the interpolated ones between their last two
+     * positions.
+     *
+     * @param surface the surface to draw on.
+     * @param alpha   0 for the previous positions, 1 for the current ones.
+     */
+    public void drawAllOn(DrawSurface surface, double alpha) {
+        this.passes++;
+        try {
+            for (Node head : this.heads) {
+                for (Node node = head; node != null; node = node.next) {
+                    drawOn(node.sprite, surface, alpha);
+                }
+            }
+        } finally {
+            this.endPass();
+        }
+    }
+
+    /**
+     * Draws one sprite, between its last two positions if interpolated.
+     *
+     * @param sprite  the sprite to draw.
+     * @param surface the surface to draw on.
+     * @param alpha   0 for the previous position, 1 for the current one.
+     */
+    public static void drawOn(Sprite sprite, DrawSurface surface, double alpha) {
+        if (sprite instanceof InterpolatedSprite) {
+            ((InterpolatedSprite) sprite).drawOn(surface, alpha);
+        } else {
             sprite.drawOn(surface);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Iterates the sprites in drawing order. The collection must not be
+     * changed while iterating.
+     *
+     * @return an iterator of the sprites in drawing order.
+     */
+    @Override
+    public Iterator<Sprite> iterator() {
+        return new Iterator<Sprite>() {
+            private int layer = 0;
+            private Node node = heads[0];
+
+            @Override
+            public boolean hasNext() {
+                // skip to the next layer that isn't empty
+                while (this.node == null && this.layer < heads.length - 1) {
+                    this.layer++;
+                    this.node = heads[this.layer];
+                }
+                return this.node != null;
+            }
+
+            @Override
+            public Sprite next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Sprite sprite = this.node.sprite;
+                this.node = this.node.next;
+                return sprite;
+            }
+        };
+    }
+
+    /**
+     * Ends a pass over the sprites, and applies the changes deferred by it
+     * if it was the outermost pass.
+     */
+    private void endPass() {
+        this.passes--;
+        if (this.passes > 0 || this.pending.isEmpty()) {
+            return;
+        }
+        // in the order they were asked, a null layer is a removal
+        List<Node> changes = this.pending;
+        this.pending = new ArrayList<>();
+        for (Node change : changes) {
+            if (change.layer == null) {
+                this.removeSprite(change.sprite);
+            } else {
+                this.addSprite(change.sprite, change.layer);
+            }
+        }
+    }
+
+    /**
+     * Links the node at the end of its layer, and of the active list if the
+     * sprite isn't passive.
+     *
+     * @param node the node to link.
+     */
+    private void link(Node node) {
+        int index = node.layer.ordinal();
+        node.previous = this.tails[index];
+        if (this.tails[index] == null) {
+            this.heads[index] = node;
+        } else {
+            this.tails[index].next = node;
+        }
+        this.tails[index] = node;
+
+        if (node.sprite instanceof PassiveSprite) {
+            return;
+        }
+        node.previousActive = this.activeTail;
+        if (this.activeTail == null) {
+            this.activeHead = node;
+        } else {
+            this.activeTail.nextActive = node;
+        }
+        this.activeTail = node;
+    }
+
+    /**
+     * Unlinks the node from its layer and from the active list.
+     *
+     * @param node the node to unlink.
+     */
+    private void unlink(Node node) {
+        int index = node.layer.ordinal();
+        if (node.previous == null) {
+            this.heads[index] = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+        if (node.next == null) {
+            this.tails[index] = node.previous;
+        } else {
+            node.next.previous = node.previous;
+        }
+
+        if (node.sprite instanceof PassiveSprite) {
+            return;
+        }
+        if (node.previousActive == null) {
+            this.activeHead = node.nextActive;
+        } else {
+            node.previousActive.nextActive = node.nextActive;
+        }
+        if (node.nextActive == null) {
+            this.activeTail = node.previousActive;
+        } else {
+            node.nextActive.previousActive = node.previousActive;
+        }
+    }
+
+    /**
+     * The handle of a sprite: its links in its layer and in the active list.
+     */
+    private static class Node {
+        private final Sprite sprite;
+        private final Layer layer;
+        private Node previous;
+        private Node next;
+        private Node previousActive;
+        private Node nextActive;
+
+        /**
+         * Constructs an unlinked node.
+         *
+         * @param sprite the sprite.
+         * @param layer  the layer of the sprite.
+         */
+        Node(Sprite sprite, Layer layer) {
+            this.sprite = sprite;
+            this.layer = layer;
+        }
+    }
+}
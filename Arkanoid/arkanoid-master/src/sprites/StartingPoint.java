@@ -9,7 +9,7 @@ import java.awt.Color;
 /**
  * Starting point class.
  */
-public class StartingPoint implements Sprite {
+public class StartingPoint implements PassiveSprite {
     private Circle circle;
 
     /**
@@ -63,6 +63,6 @@ public class StartingPoint implements Sprite {
      */
     @Override
     public void addToGame(GameLevel gameLevel) {
-        gameLevel.addSprite(this);
+        gameLevel.addStaticSprite(this);
     }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package sprites;
+
+import animation.GameLevel;
+import biuoop.DrawSurface;
+import collisions.Collidable;
+import general.ImageCache;
+import geometry.Ball;
+import geometry.Rectangle;
+import listeners.HitListener;
+import sprites.blocks.BaseBlock;
+import surfaces.ImageDrawSurface;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * StaticLayer class.
+ * <p>
+ * Caches the sprites that look the same from frame to frame (background,
+ * borders, starting point and blocks) in one image, so each frame draws
+ * them with a single blit. The image is rendered on first draw, and after
+ * that only the dirty rectangles are rendered again: the bounds of blocks
+ * whose hit points changed, and of sprites that were removed.
+ * The layer is a sprite itself, and a hit listener of its blocks.
+ */
+public class StaticLayer implements PassiveSprite, HitListener {
+    private static final int MAX_CHANGES = 64;
+    private int width;
+    private int height;
+    private Set<Sprite> sprites;
+    private List<java.awt.Rectangle> dirty;
+    private List<java.awt.Rectangle> changes;
+    private boolean rendered;
+    private ImageDrawSurface surface;
+
+    /**
+     * Constructs an empty StaticLayer of the given size.
+     *
+     * @param width  the width of the layer.
+     * @param height the height of the layer.
+     */
+    public StaticLayer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.sprites = new LinkedHashSet<>();
+        this.dirty = new ArrayList<>();
+        this.changes = new ArrayList<>();
+        this.rendered = false;
+    }
+
+    /**
+     * Adds a sprite on top of the layer. Blocks are listened to, so hits
+     * that change them render them again.
+     *
+     * @param sprite the sprite to add.
+     */
+    public void addSprite(Sprite sprite) {
+        this.sprites.add(sprite);
+        if (sprite instanceof BaseBlock) {
+            ((BaseBlock) sprite).addHitListener(this);
+        }
+        this.invalidate(sprite);
+    }
+
+    /**
+     * Removes a sprite from the layer, if it is in it.
+     *
+     * @param sprite the sprite to remove.
+     * @return true if the sprite was in the layer, else false.
+     */
+    public boolean removeSprite(Sprite sprite) {
+        if (!this.sprites.remove(sprite)) {
+            return false;
+        }
+        if (sprite instanceof BaseBlock) {
+            ((BaseBlock) sprite).removeHitListener(this);
+        }
+        this.invalidate(sprite);
+        return true;
+    }
+
+    /**
+     * Renders the block again if the hit changed its hit points (blocks
+     * that reach 0 are removed, and so rendered again by the removal).
+     *
+     * @param beingHit the hit block.
+     * @param hitter   the hitter ball.
+     */
+    @Override
+    public void hitEvent(BaseBlock beingHit, Ball hitter) {
+        if (beingHit.getHitPoints() > 0) {
+            this.invalidate(beingHit);
+        }
+    }
+
+    /**
+     * Marks the bounds of the sprite as dirty, or the whole layer if the
+     * sprite has no bounds.
+     *
+     * @param sprite the changed sprite.
+     */
+    public void invalidate(Sprite sprite) {
+        if (!this.rendered) {
+            return;
+        }
+        if (sprite instanceof Collidable) {
+            Rectangle shape = ((Collidable) sprite).getCollisionRectangle();
+            // one more pixel for the frame that is drawn around
+            this.dirty.add(new java.awt.Rectangle((int) Math.floor(shape.getUpperLeft().getX()) - 1,
+                    (int) Math.floor(shape.getUpperLeft().getY()) - 1,
+                    (int) Math.ceil(shape.getWidth()) + 3, (int) Math.ceil(shape.getHeight()) + 3));
+        } else {
+            this.rendered = false;
+            this.dirty.clear();
+        }
+    }
+
+    /**
+     * Draws the layer, rendering the dirty parts first.
+     *
+     * @param surface the surface to draw on.
+     */
+    @Override
+    public void drawOn(DrawSurface surface) {
+        this.update();
+        surface.drawImage(0, 0, this.surface.getImage());
+    }
+
+    /**
+     * Renders the dirty parts of the layer (all of it the first time).
+     * The rendered areas are logged until taken by takeChanges().
+     */
+    public void update() {
+        if (!this.rendered) {
+            this.renderAll();
+            this.changes.clear();
+            this.changes.add(new java.awt.Rectangle(0, 0, this.width, this.height));
+        } else if (!this.dirty.isEmpty()) {
+            this.changes.addAll(this.dirty);
+            this.renderDirty();
+            // too many to be worth tracking one by one
+            if (this.changes.size() > MAX_CHANGES) {
+                this.changes.clear();
+                this.changes.add(new java.awt.Rectangle(0, 0, this.width, this.height));
+            }
+        }
+    }
+
+    /**
+     * Gives the areas rendered since the last call (by any draw), so a
+     * kept back buffer knows where to copy the layer again.
+     *
+     * @return the rendered areas.
+     */
+    public List<java.awt.Rectangle> takeChanges() {
+        List<java.awt.Rectangle> taken = this.changes;
+        this.changes = new ArrayList<>();
+        return taken;
+    }
+
+    /**
+     * Gives the image of the layer, up to date after update().
+     *
+     * @return the image of the layer.
+     */
+    public BufferedImage getImage() {
+        return this.surface.getImage();
+    }
+
+    /**
+     * Renders the whole layer.
+     */
+    private void renderAll() {
+        if (this.surface == null) {
+            this.surface = new ImageDrawSurface(ImageCache.createCompatible(this.width, this.height,
+                    Transparency.OPAQUE));
+        }
+        this.surface.setClip(null);
+        for (Sprite sprite : this.sprites) {
+            sprite.drawOn(this.surface);
+        }
+        this.dirty.clear();
+        this.rendered = true;
+    }
+
+    /**
+     * Renders the dirty rectangles, each by the sprites that touch it.
+     */
+    private void renderDirty() {
+        for (java.awt.Rectangle area : this.dirty) {
+            this.surface.setClip(area);
+            for (Sprite sprite : this.sprites) {
+                if (touches(sprite, area)) {
+                    sprite.drawOn(this.surface);
+                }
+            }
+        }
+        this.surface.setClip(null);
+        this.dirty.clear();
+    }
+
+    /**
+     * Tells if the sprite may draw in the area (sprites without bounds,
+     * like backgrounds, always may).
+     *
+     * @param sprite the sprite.
+     * @param area   the area.
+     * @return true if the sprite may draw in the area, else false.
+     */
+    private static boolean touches(Sprite sprite, java.awt.Rectangle area) {
+        if (!(sprite instanceof Collidable)) {
+            return true;
+        }
+        Rectangle shape = ((Collidable) sprite).getCollisionRectangle();
+        double xPos = shape.getUpperLeft().getX();
+        double yPos = shape.getUpperLeft().getY();
+        return xPos - 1 <= area.getMaxX() && area.getX() <= xPos + shape.getWidth() + 1
+                && yPos - 1 <= area.getMaxY() && area.getY() <= yPos + shape.getHeight() + 1;
+    }
+
+    /**
+     * No use, the layer doesn't change by time.
+     *
+     * @param dt keeps the speed to be according to seconds.
+     */
+    @Override
+    public void timePassed(double dt) {
+    }
+
+    /**
+     * Adds the layer to the game as a regular sprite.
+     *
+     * @param gameLevel the GameLevel to add to.
+     */
+    @Override
+    public void addToGame(GameLevel gameLevel) {
+        gameLevel.addSprite(this, Layer.BACKGROUND);
+    }
+}
@@ -7,10 +7,9 @@ import geometry.Point;
 import geometry.Rectangle;
 import geometry.Velocity;
 import geometry.Ball;
-import geometry.Line;
 import listeners.HitListener;
 import listeners.HitNotifier;
-import sprites.Sprite;
+import sprites.PassiveSprite;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,7 +17,7 @@ import java.util.List;
 /**
  * BaseBlock class.
  */
-public abstract class BaseBlock implements Collidable, Sprite, HitNotifier {
+public abstract class BaseBlock implements Collidable, PassiveSprite, HitNotifier {
     private Rectangle shape;
     private int hitPoints;
     private List<HitListener> hitListeners;
@@ -147,17 +146,11 @@ public abstract class BaseBlock implements Collidable, Sprite, HitNotifier {
         double dx = currentVelocity.getDx();
         double dy = currentVelocity.getDy();
 
-        // take the lines clockwise
-        Line top = this.shape.getLines().get(0);
-        Line right = this.shape.getLines().get(1);
-        Line bottom = this.shape.getLines().get(2);
-        Line left = this.shape.getLines().get(3);
-
         // booleans if hit the upper, lower, left or right side
-        boolean onTop = collisionPoint.onSegment(top.start(), top.end());
-        boolean onRight = collisionPoint.onSegment(right.start(), right.end());
-        boolean onBtm = collisionPoint.onSegment(bottom.start(), bottom.end());
-        boolean onLeft = collisionPoint.onSegment(left.start(), left.end());
+        boolean onTop = this.shape.isOnTop(collisionPoint);
+        boolean onRight = this.shape.isOnRight(collisionPoint);
+        boolean onBtm = this.shape.isOnBottom(collisionPoint);
+        boolean onLeft = this.shape.isOnLeft(collisionPoint);
 
         // update dx and dy according the side of the hit
         if (onTop) {
@@ -192,7 +185,7 @@ public abstract class BaseBlock implements Collidable, Sprite, HitNotifier {
      * @param gameLevel the GameLevel that
      */
     public void addToGame(GameLevel gameLevel) {
-        gameLevel.addSprite(this);
+        gameLevel.addStaticSprite(this);
         gameLevel.addCollidable(this);
     }
 
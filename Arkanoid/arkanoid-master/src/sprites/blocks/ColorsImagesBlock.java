@@ -1,10 +1,9 @@
 package sprites.blocks;
 
 import biuoop.DrawSurface;
+import general.LazyImage;
 
 import java.awt.Color;
-import java.awt.image.BufferedImage;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -13,7 +12,7 @@ import java.util.Map;
 public class ColorsImagesBlock extends BaseBlock {
     private Color strokeColor;
     private Map<Integer, Color> fillcolors;
-    private Map<Integer, BufferedImage> fillImages;
+    private Map<Integer, LazyImage> fillImages;
 
     /**
      * Constructs a ColorsImagesBlock.
@@ -50,12 +49,39 @@ public class ColorsImagesBlock extends BaseBlock {
     }
 
     /**
-     * Sets the fill resources map.
+     * Sets the fill resources map (images are decoded when first drawn).
      *
      * @param newFillImages the new fill resources map.
      */
-    public void setFillImages(Map<Integer, BufferedImage> newFillImages) {
-        this.fillImages = new HashMap<>(newFillImages);
+    public void setFillImages(Map<Integer, LazyImage> newFillImages) {
+        this.fillImages = newFillImages;
+    }
+
+    /**
+     * Gives the stroke color.
+     *
+     * @return the stroke color, null if none.
+     */
+    public Color getStrokeColor() {
+        return this.strokeColor;
+    }
+
+    /**
+     * Gives the fill colors map.
+     *
+     * @return the fill colors map.
+     */
+    public Map<Integer, Color> getFillColors() {
+        return this.fillcolors;
+    }
+
+    /**
+     * Gives the fill images map.
+     *
+     * @return the fill images map.
+     */
+    public Map<Integer, LazyImage> getFillImages() {
+        return this.fillImages;
     }
 
     /**
@@ -79,7 +105,7 @@ public class ColorsImagesBlock extends BaseBlock {
                 surface.fillRectangle(startX, startY, width, height);
                 // use default image
             } else if (this.fillImages.containsKey(1)) {
-                surface.drawImage(startX, startY, this.fillImages.get(1));
+                surface.drawImage(startX, startY, this.fillImages.get(1).get());
             }
         } else if (this.fillcolors.containsKey(super.getHitPoints())) {
             // color that fit the hit points
@@ -87,7 +113,7 @@ public class ColorsImagesBlock extends BaseBlock {
             surface.fillRectangle(startX, startY, width, height);
         } else if (this.fillImages.containsKey(super.getHitPoints())) {
             // image that fit the hit points
-            surface.drawImage(startX, startY, this.fillImages.get(super.getHitPoints()));
+            surface.drawImage(startX, startY, this.fillImages.get(super.getHitPoints()).get());
         }
 
         if (this.strokeColor != null) {
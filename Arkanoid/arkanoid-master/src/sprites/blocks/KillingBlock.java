@@ -1,11 +1,13 @@
 package sprites.blocks;
 
+import animation.GameLevel;
 import biuoop.DrawSurface;
 import general.Utils;
 import geometry.Ball;
 import geometry.Point;
 import geometry.Velocity;
 import listeners.BallRemover;
+import sprites.Layer;
 
 import java.awt.Color;
 
@@ -62,4 +64,15 @@ public class KillingBlock extends Border {
         // draw the regular block
         super.drawOn(surface);
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds this to the game, as a changing sprite since it blinks when hit.
+     *
+     * @param gameLevel the GameLevel to add to.
+     */
+    @Override
+    public void addToGame(GameLevel gameLevel) {
+        gameLevel.addSprite(this, Layer.BLOCKS);
+        gameLevel.addCollidable(this);
+    }
+}
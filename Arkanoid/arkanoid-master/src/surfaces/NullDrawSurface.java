@@ -0,0 +1,110 @@
+package surfaces;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+
+/**
+ * NullDrawSurface class.
+ * <p>
+ * A draw surface that draws nothing, for running the game without a
+ * display. It only counts the draw calls it gets.
+ */
+public class NullDrawSurface implements DrawSurface {
+    private int width;
+    private int height;
+    private long calls;
+
+    /**
+     * Constructs a NullDrawSurface by given sizes.
+     *
+     * @param width  the width of the surface.
+     * @param height the height of the surface.
+     */
+    public NullDrawSurface(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.calls = 0;
+    }
+
+    /**
+     * Gives the number of draw calls since constructed.
+     *
+     * @return the number of draw calls.
+     */
+    public long getCalls() {
+        return this.calls;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.calls++;
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.calls++;
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        this.calls++;
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        this.calls++;
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.calls++;
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.calls++;
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        this.calls++;
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.calls++;
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.calls++;
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        this.calls++;
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        this.calls++;
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        this.calls++;
+    }
+}
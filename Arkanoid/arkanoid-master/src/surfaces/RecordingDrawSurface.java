@@ -0,0 +1,134 @@
+package surfaces;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RecordingDrawSurface class.
+ * <p>
+ * A draw surface that draws nothing but records every draw call as a line
+ * of text (like "fillCircle 400 500 5"), so frames can be compared in
+ * regression runs. Images are recorded by their sizes.
+ */
+public class RecordingDrawSurface implements DrawSurface {
+    private int width;
+    private int height;
+    private List<String> operations;
+
+    /**
+     * Constructs a RecordingDrawSurface by given sizes.
+     *
+     * @param width  the width of the surface.
+     * @param height the height of the surface.
+     */
+    public RecordingDrawSurface(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.operations = new ArrayList<>();
+    }
+
+    /**
+     * Gives the recorded operations in the order they were called.
+     *
+     * @return the recorded operations.
+     */
+    public List<String> getOperations() {
+        return this.operations;
+    }
+
+    /**
+     * Forgets the recorded operations (like at the start of a frame).
+     */
+    public void clear() {
+        this.operations.clear();
+    }
+
+    /**
+     * Records one operation.
+     *
+     * @param name the name of the operation.
+     * @param args the arguments of the operation.
+     */
+    private void record(String name, Object... args) {
+        StringBuilder operation = new StringBuilder(name);
+        for (Object arg : args) {
+            operation.append(' ').append(arg);
+        }
+        this.operations.add(operation.toString());
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.record("setColor", color.getRGB());
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.record("drawLine", x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        this.record("drawOval", x, y, width, height);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        this.record("fillOval", x, y, width, height);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.record("drawRectangle", x, y, width, height);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.record("fillRectangle", x, y, width, height);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        this.record("drawImage", x, y, image.getWidth(null), image.getHeight(null));
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.record("drawCircle", x, y, r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.record("fillCircle", x, y, r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        this.record("drawText", x, y, text, fontSize);
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        this.record("drawPolygon", polygon.npoints);
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        this.record("fillPolygon", polygon.npoints);
+    }
+}
@@ -0,0 +1,157 @@
+package surfaces;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+
+/**
+ * TrackingDrawSurface class.
+ * <p>
+ * A draw surface that passes every call to another surface and keeps the
+ * bounding box of everything drawn since it was last taken. Text bounds
+ * are estimated from the font size, generously.
+ */
+public class TrackingDrawSurface implements DrawSurface {
+    private DrawSurface target;
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    /**
+     * Constructs a TrackingDrawSurface that draws on the given surface.
+     *
+     * @param target the surface to draw on.
+     */
+    public TrackingDrawSurface(DrawSurface target) {
+        this.target = target;
+        this.reset();
+    }
+
+    /**
+     * Gives the bounding box of everything drawn since the last call, and
+     * starts tracking again.
+     *
+     * @return the bounding box, or null if nothing was drawn.
+     */
+    public Rectangle takeBounds() {
+        Rectangle bounds = null;
+        if (this.minX <= this.maxX && this.minY <= this.maxY) {
+            bounds = new Rectangle(this.minX, this.minY, this.maxX - this.minX, this.maxY - this.minY);
+        }
+        this.reset();
+        return bounds;
+    }
+
+    /**
+     * Forgets the tracked bounds.
+     */
+    private void reset() {
+        this.minX = Integer.MAX_VALUE;
+        this.minY = Integer.MAX_VALUE;
+        this.maxX = Integer.MIN_VALUE;
+        this.maxY = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Adds the area from (x, y) of the given size (exclusive end) to the bounds.
+     *
+     * @param x      the x of the area.
+     * @param y      the y of the area.
+     * @param width  the width of the area.
+     * @param height the height of the area.
+     */
+    private void track(int x, int y, int width, int height) {
+        this.minX = Math.min(this.minX, x);
+        this.minY = Math.min(this.minY, y);
+        this.maxX = Math.max(this.maxX, x + width);
+        this.maxY = Math.max(this.maxY, y + height);
+    }
+
+    @Override
+    public int getWidth() {
+        return this.target.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return this.target.getHeight();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.target.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.track(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x2 - x1) + 1, Math.abs(y2 - y1) + 1);
+        this.target.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        this.track(x, y, width + 1, height + 1);
+        this.target.drawOval(x, y, width, height);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        this.track(x, y, width, height);
+        this.target.fillOval(x, y, width, height);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.track(x, y, width + 1, height + 1);
+        this.target.drawRectangle(x, y, width, height);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.track(x, y, width, height);
+        this.target.fillRectangle(x, y, width, height);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        this.track(x, y, image.getWidth(null), image.getHeight(null));
+        this.target.drawImage(x, y, image);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.track(x - r, y - r, 2 * r + 1, 2 * r + 1);
+        this.target.drawCircle(x, y, r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.track(x - r, y - r, 2 * r + 1, 2 * r + 1);
+        this.target.fillCircle(x, y, r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        // no glyph is wider than the font size, or deeper than half of it
+        this.track(x, y - fontSize, fontSize * text.length(), fontSize + fontSize / 2);
+        this.target.drawText(x, y, text, fontSize);
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        Rectangle bounds = polygon.getBounds();
+        this.track(bounds.x, bounds.y, bounds.width + 1, bounds.height + 1);
+        this.target.drawPolygon(polygon);
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        Rectangle bounds = polygon.getBounds();
+        this.track(bounds.x, bounds.y, bounds.width + 1, bounds.height + 1);
+        this.target.fillPolygon(polygon);
+    }
+}